@@ -0,0 +1,41 @@
+package com.hugman.uhc.gametest;
+
+import com.hugman.uhc.util.LatencyHistogram;
+
+/**
+ * What the server went through during one chapter of a simulated game.
+ */
+public class ChapterStats {
+	private final LatencyHistogram tickTimes = new LatencyHistogram();
+	private long ticks = 0;
+	private long allocatedBytes = 0;
+	private long samples = 0;
+	private long chunkSum = 0;
+	private int maxChunks = 0;
+	private long entitySum = 0;
+	private int maxEntities = 0;
+
+	public void recordTick(long tickNanos, long allocatedBytes) {
+		this.tickTimes.record(tickNanos);
+		this.ticks++;
+		this.allocatedBytes += allocatedBytes;
+	}
+
+	public void recordSample(int chunks, int entities) {
+		this.samples++;
+		this.chunkSum += chunks;
+		this.maxChunks = Math.max(this.maxChunks, chunks);
+		this.entitySum += entities;
+		this.maxEntities = Math.max(this.maxEntities, entities);
+	}
+
+	public String summarize() {
+		double seconds = this.ticks / 20.0D;
+		return String.format("ticks=%d mspt[%s] chunks avg=%d max=%d entities avg=%d max=%d alloc=%.1fMB/s",
+				this.ticks,
+				this.tickTimes.summarize(),
+				this.samples == 0 ? 0 : this.chunkSum / this.samples, this.maxChunks,
+				this.samples == 0 ? 0 : this.entitySum / this.samples, this.maxEntities,
+				seconds <= 0 ? 0 : this.allocatedBytes / seconds / (1024.0D * 1024.0D));
+	}
+}
@@ -0,0 +1,33 @@
+package com.hugman.uhc.gametest;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+import net.minecraft.network.ClientConnection;
+import net.minecraft.network.NetworkSide;
+import net.minecraft.network.Packet;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A connection without a channel, dropping every packet sent to it.
+ */
+public class FakeClientConnection extends ClientConnection {
+	private long packets = 0;
+
+	public FakeClientConnection() {
+		super(NetworkSide.SERVERBOUND);
+	}
+
+	@Override
+	public void send(Packet<?> packet, @Nullable GenericFutureListener<? extends Future<? super Void>> callback) {
+		this.packets++;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return true;
+	}
+
+	public long getPackets() {
+		return this.packets;
+	}
+}
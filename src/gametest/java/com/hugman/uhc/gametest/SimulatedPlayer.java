@@ -0,0 +1,104 @@
+package com.hugman.uhc.gametest;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.mob.HostileEntity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.tag.BlockTags;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.GameMode;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.border.WorldBorder;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A fake player following a random policy: it walks around, sometimes towards the center of the map, breaks logs and ores next to it, attacks mobs and players in reach, and dies once in a while.
+ */
+public class SimulatedPlayer {
+	private static final int WALK_INTERVAL = 10;
+	private static final int ACTION_INTERVAL = 20;
+	private static final double REACH = 4.0D;
+	private static final float DEATH_CHANCE = 1.0F / 20000.0F;
+
+	private final ServerPlayerEntity player;
+	private final FakeClientConnection connection;
+	private final Random random;
+	private float direction;
+
+	public SimulatedPlayer(ServerPlayerEntity player, FakeClientConnection connection, Random random) {
+		this.player = player;
+		this.connection = connection;
+		this.random = random;
+		this.direction = random.nextFloat() * 360.0F;
+	}
+
+	public ServerPlayerEntity getPlayer() {
+		return this.player;
+	}
+
+	public FakeClientConnection getConnection() {
+		return this.connection;
+	}
+
+	public void tick(long ticks) {
+		ServerPlayerEntity player = this.player;
+		player.playerTick();
+		if(player.interactionManager.getGameMode() != GameMode.SURVIVAL || !player.isAlive()) return;
+
+		if(this.random.nextFloat() < DEATH_CHANCE) {
+			player.kill();
+			return;
+		}
+		if(ticks % WALK_INTERVAL == 0) {
+			this.walk(player.getWorld());
+		}
+		if(ticks % ACTION_INTERVAL == 0) {
+			this.mine(player.getWorld());
+			this.attack(player.getWorld());
+		}
+	}
+
+	private void walk(ServerWorld world) {
+		if(this.random.nextInt(3) == 0) {
+			this.direction = (float) (MathHelper.atan2(-this.player.getZ(), -this.player.getX()) * 180.0D / Math.PI) - 90.0F;
+		}
+		else {
+			this.direction += this.random.nextFloat() * 60.0F - 30.0F;
+		}
+		double radians = Math.toRadians(this.direction + 90.0F);
+		int x = MathHelper.floor(this.player.getX() + Math.cos(radians) * 2.0D);
+		int z = MathHelper.floor(this.player.getZ() + Math.sin(radians) * 2.0D);
+
+		WorldBorder border = world.getWorldBorder();
+		if(!border.contains(x, z) || !world.isChunkLoaded(x >> 4, z >> 4)) {
+			this.direction += 180.0F;
+			return;
+		}
+		int y = world.getTopY(Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, x, z);
+		this.player.teleport(world, x + 0.5D, y, z + 0.5D, this.direction, 0.0F);
+	}
+
+	private void mine(ServerWorld world) {
+		BlockPos origin = this.player.getBlockPos();
+		for(BlockPos pos : BlockPos.iterateOutwards(origin, 2, 2, 2)) {
+			if(world.getBlockState(pos).isIn(BlockTags.LOGS) || world.getBlockState(pos).isIn(BlockTags.IRON_ORES) || world.getBlockState(pos).isIn(BlockTags.COAL_ORES)) {
+				this.player.interactionManager.tryBreakBlock(pos.toImmutable());
+				return;
+			}
+		}
+	}
+
+	private void attack(ServerWorld world) {
+		List<Entity> targets = world.getOtherEntities(this.player, this.player.getBoundingBox().expand(REACH), entity -> entity.isAlive() && (entity instanceof HostileEntity || (entity instanceof ServerPlayerEntity other && !other.isSpectator())));
+		if(!targets.isEmpty()) {
+			Entity target = targets.get(this.random.nextInt(targets.size()));
+			if(target instanceof LivingEntity) {
+				this.player.attack(target);
+			}
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package com.hugman.uhc.gametest;
+
+import com.hugman.uhc.UHC;
+import com.hugman.uhc.game.UHCProfiler;
+import com.mojang.authlib.GameProfile;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.plasmid.game.GameCloseReason;
+import xyz.nucleoid.plasmid.game.GameResult;
+import xyz.nucleoid.plasmid.game.config.GameConfig;
+import xyz.nucleoid.plasmid.game.manager.GameSpaceManager;
+import xyz.nucleoid.plasmid.game.manager.ManagedGameSpace;
+import xyz.nucleoid.plasmid.game.player.GamePlayerJoiner;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Plays a whole UHC game with fake players, and keeps track of the tick times, loaded chunks, entities and allocations of every chapter.
+ * Chapters are the events of the game timeline, as reported by its {@link UHCProfiler}.
+ */
+public class UHCLoadSimulation {
+	private static final int SAMPLE_INTERVAL = 20;
+	private static final int START_INTERVAL = 20;
+
+	private final MinecraftServer server;
+	private final GameConfig<?> config;
+	private final int playerAmount;
+	private final long maxTicks;
+	private final Random random;
+	private final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	private final List<SimulatedPlayer> players = new ArrayList<>();
+	private final Map<String, ChapterStats> chapters = new LinkedHashMap<>();
+
+	private State state = State.IDLE;
+	@Nullable
+	private ManagedGameSpace gameSpace;
+	private long ticks = 0;
+	private long allocatedBytes;
+
+	/**
+	 * @param maxTicks the amount of ticks after which the game gets closed, if it did not end by itself
+	 */
+	public UHCLoadSimulation(MinecraftServer server, GameConfig<?> config, int playerAmount, long seed, long maxTicks) {
+		this.server = server;
+		this.config = config;
+		this.playerAmount = playerAmount;
+		this.maxTicks = maxTicks;
+		this.random = new Random(seed);
+	}
+
+	public void start() {
+		this.state = State.OPENING;
+		this.allocatedBytes = this.getAllocatedBytes();
+		GameSpaceManager.get().open(this.config).thenAcceptAsync(gameSpace -> {
+			this.gameSpace = gameSpace;
+			this.joinPlayers(gameSpace);
+			this.state = State.WAITING;
+		}, this.server).exceptionally(throwable -> {
+			UHC.LOGGER.error("Failed to open the game of the load simulation", throwable);
+			this.state = State.FINISHED;
+			return null;
+		});
+	}
+
+	private void joinPlayers(ManagedGameSpace gameSpace) {
+		ServerWorld overworld = this.server.getOverworld();
+		for(int i = 0; i < this.playerAmount; i++) {
+			GameProfile profile = new GameProfile(UUID.randomUUID(), "uhc_bot_" + i);
+			ServerPlayerEntity player = new ServerPlayerEntity(this.server, overworld, profile);
+			FakeClientConnection connection = new FakeClientConnection();
+			this.server.getPlayerManager().onPlayerConnect(connection, player);
+			GamePlayerJoiner.tryJoin(player, gameSpace);
+			this.players.add(new SimulatedPlayer(player, connection, new Random(this.random.nextLong())));
+		}
+	}
+
+	public void tick() {
+		if(this.state == State.IDLE || this.state == State.FINISHED) return;
+		long ticks = this.ticks++;
+
+		ManagedGameSpace gameSpace = this.gameSpace;
+		if(gameSpace != null) {
+			if(!GameSpaceManager.get().getOpenGameSpaces().contains(gameSpace)) {
+				this.finish();
+				return;
+			}
+			if(ticks >= this.maxTicks) {
+				UHC.LOGGER.warn("The load simulation did not end within {} ticks", this.maxTicks);
+				gameSpace.close(GameCloseReason.CANCELED);
+				this.finish();
+				return;
+			}
+			if(this.state == State.WAITING && ticks % START_INTERVAL == 0) {
+				GameResult result = gameSpace.requestStart();
+				if(result.isOk()) {
+					this.state = State.ACTIVE;
+				}
+			}
+		}
+
+		for(SimulatedPlayer player : this.players) {
+			player.tick(ticks);
+		}
+
+		ChapterStats stats = this.chapters.computeIfAbsent(this.getChapter(), chapter -> new ChapterStats());
+		long allocatedBytes = this.getAllocatedBytes();
+		stats.recordTick(this.server.lastTickLengths[this.server.getTicks() % 100], allocatedBytes - this.allocatedBytes);
+		this.allocatedBytes = allocatedBytes;
+
+		if(ticks % SAMPLE_INTERVAL == 0 && gameSpace != null) {
+			int chunks = 0;
+			int entities = 0;
+			for(ServerWorld world : gameSpace.getWorlds()) {
+				chunks += world.getChunkManager().getLoadedChunkCount();
+				for(Object ignored : world.iterateEntities()) {
+					entities++;
+				}
+			}
+			stats.recordSample(chunks, entities);
+		}
+	}
+
+	private String getChapter() {
+		if(this.state != State.ACTIVE || this.gameSpace == null) {
+			return this.state.name().toLowerCase();
+		}
+		UHCProfiler profiler = UHCProfiler.get(this.gameSpace);
+		return profiler == null ? "starting" : profiler.getChapter();
+	}
+
+	private long getAllocatedBytes() {
+		return this.threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private void finish() {
+		this.state = State.FINISHED;
+		for(SimulatedPlayer player : this.players) {
+			this.server.getPlayerManager().remove(player.getPlayer());
+		}
+	}
+
+	public boolean isFinished() {
+		return this.state == State.FINISHED;
+	}
+
+	public List<String> report() {
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("%d players, %d ticks", this.playerAmount, this.ticks));
+		this.chapters.forEach((chapter, stats) -> lines.add(chapter + ": " + stats.summarize()));
+		return lines;
+	}
+
+	public void writeReport(Path path) {
+		List<String> lines = this.report();
+		lines.forEach(UHC.LOGGER::info);
+		try {
+			Files.createDirectories(path.getParent());
+			Files.write(path, lines);
+		} catch(IOException e) {
+			UHC.LOGGER.error("Failed to write the load simulation report", e);
+		}
+	}
+
+	private enum State {
+		IDLE,
+		OPENING,
+		WAITING,
+		ACTIVE,
+		FINISHED
+	}
+}
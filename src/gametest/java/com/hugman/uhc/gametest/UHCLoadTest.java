@@ -0,0 +1,42 @@
+package com.hugman.uhc.gametest;
+
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.GameTestException;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.Identifier;
+import xyz.nucleoid.plasmid.game.config.GameConfig;
+import xyz.nucleoid.plasmid.game.config.GameConfigs;
+
+import java.nio.file.Path;
+
+/**
+ * Runs a whole game with simulated players at compressed timings, then writes what each chapter cost to {@code uhc_load_report.txt}.
+ * The amount of players can be set with the {@code uhc.load_test.players} system property.
+ */
+public class UHCLoadTest implements FabricGameTest {
+	private static final Identifier CONFIG = new Identifier("uhc_gametest", "load_test");
+
+	private static final int TICK_LIMIT = 20 * 60 * 30;
+
+	@GameTest(structureName = EMPTY_STRUCTURE, tickLimit = TICK_LIMIT)
+	public void fullGame(TestContext context) {
+		GameConfig<?> config = GameConfigs.get(CONFIG);
+		if(config == null) {
+			throw new GameTestException("Missing game config " + CONFIG);
+		}
+
+		int players = Integer.getInteger("uhc.load_test.players", 100);
+		UHCLoadSimulation simulation = new UHCLoadSimulation(context.getWorld().getServer(), config, players, 0L, TICK_LIMIT);
+		// Ticked by the test itself, so that the simulation stops with it
+		context.runAtEveryTick(simulation::tick);
+		simulation.start();
+
+		context.addFinalTask(() -> {
+			if(!simulation.isFinished()) {
+				throw new GameTestException("The game is still running");
+			}
+			simulation.writeReport(Path.of("uhc_load_report.txt"));
+		});
+	}
+}
@@ -0,0 +1,108 @@
+package com.hugman.uhc;
+
+import com.google.common.reflect.Reflection;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.hugman.uhc.module.ModuleResolver;
+import com.hugman.uhc.module.piece.ModulePieceType;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.entity.EntityType;
+import net.minecraft.loot.LootGsons;
+import net.minecraft.loot.LootTable;
+import net.minecraft.loot.condition.LootCondition;
+import net.minecraft.loot.context.LootContext;
+import net.minecraft.loot.context.LootContextParameter;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.tag.Tag;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.registry.BuiltinRegistries;
+import net.minecraft.world.gen.feature.PlacedFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Sets up the vanilla registries so that benchmarks can run without a server.
+ */
+public final class MinecraftBootstrap {
+	private static final Gson LOOT_GSON = LootGsons.getTableGsonBuilder().create();
+	private static boolean initialized = false;
+
+	public static synchronized void initialize() {
+		if(!initialized) {
+			initialized = true;
+			SharedConstants.createGameVersion();
+			Bootstrap.initialize();
+			// Module piece types are only registered once their class is loaded, which decoding a piece does not do by itself
+			Reflection.initialize(ModulePieceType.class);
+		}
+	}
+
+	public static <T> T decode(Codec<T> codec, String json) {
+		initialize();
+		return codec.parse(JsonOps.INSTANCE, JsonParser.parseString(json)).getOrThrow(false, error -> {
+		});
+	}
+
+	/**
+	 * Resolves module pieces against the vanilla data shipped in the game jar. Tags are not loaded, so no tag is ever found.
+	 */
+	public static ModuleResolver resolver() {
+		initialize();
+		return new ModuleResolver() {
+			@Override
+			public LootTable getLootTable(Identifier id) {
+				return loadLootTable(id);
+			}
+
+			@Override
+			public Tag<EntityType<?>> getEntityTypeTag(Identifier id) {
+				return null;
+			}
+
+			@Override
+			public PlacedFeature getPlacedFeature(Identifier id) {
+				return BuiltinRegistries.PLACED_FEATURE.get(id);
+			}
+		};
+	}
+
+	public static LootTable loadLootTable(Identifier id) {
+		String path = "/data/" + id.getNamespace() + "/loot_tables/" + id.getPath() + ".json";
+		try(InputStream stream = MinecraftBootstrap.class.getResourceAsStream(path)) {
+			if(stream == null) return LootTable.EMPTY;
+			try(Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+				return LOOT_GSON.fromJson(reader, LootTable.class);
+			}
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Creates a loot context without any world. Only loot tables that do not look at the world, like most block and entity ones, can be generated with it.
+	 */
+	public static LootContext createLootContext(Random random, Map<LootContextParameter<?>, Object> parameters) {
+		try {
+			// The builder needs a world, so the private constructor is used instead, picked by its parameter types so that a change in its signature fails here
+			Constructor<LootContext> constructor = LootContext.class.getDeclaredConstructor(Random.class, float.class, ServerWorld.class, Function.class, Function.class, Map.class, Map.class);
+			constructor.setAccessible(true);
+			Function<Identifier, LootTable> tables = MinecraftBootstrap::loadLootTable;
+			Function<Identifier, LootCondition> conditions = id -> null;
+			return constructor.newInstance(random, 0.0F, null, tables, conditions, parameters, Map.of());
+		} catch(ReflectiveOperationException e) {
+			throw new IllegalStateException("Failed to create a loot context", e);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.hugman.uhc.game;
+
+import com.hugman.uhc.MinecraftBootstrap;
+import net.minecraft.text.LiteralText;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import xyz.nucleoid.plasmid.game.common.widget.SidebarWidget;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One server tick of the sidebar of a game of 100 participants, where a participant gets eliminated every 10 seconds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UHCSideBarBenchmark {
+	private static final int PARTICIPANTS = 100;
+
+	private UHCSideBar sideBar;
+	private long tick;
+	private int playersAlive;
+
+	@Setup
+	public void setup() {
+		MinecraftBootstrap.initialize();
+		this.sideBar = new UHCSideBar(new SidebarWidget(new LiteralText("UHC")), 20, new UHCTimeLabels(20 * 60 * 60));
+		this.tick = 0;
+		this.playersAlive = PARTICIPANTS;
+	}
+
+	@Benchmark
+	public void update() {
+		long tick = this.tick++;
+		if(tick % 200 == 0) {
+			this.playersAlive = this.playersAlive <= 1 ? PARTICIPANTS : this.playersAlive - 1;
+			this.sideBar.setPlayersAlive(this.playersAlive);
+		}
+		this.sideBar.update(tick, tick, 500);
+	}
+}
@@ -0,0 +1,72 @@
+package com.hugman.uhc.module;
+
+import com.hugman.uhc.MinecraftBootstrap;
+import com.hugman.uhc.module.piece.ModulePieceType;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.registry.Registry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of module pieces by type, as done by {@link com.hugman.uhc.config.UHCConfig#getModulesPieces(ModulePieceType)} from every game listener,
+ * and of the block loot applying to a dropped block state, as done for every block drop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModulePlanBenchmark {
+	private static final String MODULE = """
+			{
+				"translation": "module.uhc.benchmark",
+				"pieces": [
+					{"type": "uhc:block_loot", "target": {"predicate_type": "minecraft:block_match", "block": "minecraft:iron_ore"}, "loot_table": "minecraft:blocks/iron_block"},
+					{"type": "uhc:block_loot", "target": {"predicate_type": "minecraft:block_match", "block": "minecraft:gold_ore"}, "loot_table": "minecraft:blocks/gold_block"},
+					{"type": "uhc:entity_loot", "entity": "minecraft:cow", "loot_table": "minecraft:entities/cow"},
+					{"type": "uhc:traversal_break", "target": {"predicate_type": "minecraft:block_match", "block": "minecraft:oak_log"}}
+				]
+			}
+			""";
+
+	private ModulePlan plan;
+	private ModulePieceType<?>[] types;
+	private BlockState[] states;
+
+	@Setup
+	public void setup() {
+		Module module = MinecraftBootstrap.decode(Module.CODEC, MODULE);
+		this.plan = new ModulePlan(List.of(module, module, module));
+		this.plan.resolve(MinecraftBootstrap.resolver());
+		this.types = new ModulePieceType<?>[]{ModulePieceType.BLOCK_LOOT, ModulePieceType.ENTITY_LOOT, ModulePieceType.TRAVERSAL_BREAK, ModulePieceType.PLAYER_ATTRIBUTE, ModulePieceType.PERMANENT_EFFECT, ModulePieceType.PLACED_FEATURES};
+		this.states = Registry.BLOCK.stream().map(Block::getDefaultState).toArray(BlockState[]::new);
+	}
+
+	@Benchmark
+	public int getPieces() {
+		int size = 0;
+		for(ModulePieceType<?> type : this.types) {
+			size += this.plan.get(type).size();
+		}
+		return size;
+	}
+
+	/**
+	 * Looks up the block loot of the default state of every block, most of which have none.
+	 */
+	@Benchmark
+	public int getBlockLoot() {
+		int size = 0;
+		for(BlockState state : this.states) {
+			size += this.plan.getBlockLoot(state).length;
+		}
+		return size;
+	}
+}
@@ -0,0 +1,112 @@
+package com.hugman.uhc.module.piece;
+
+import com.hugman.uhc.MinecraftBootstrap;
+import com.hugman.uhc.module.Module;
+import com.hugman.uhc.module.ModulePlan;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.entity.EntityType;
+import net.minecraft.item.ItemStack;
+import net.minecraft.loot.context.LootContext;
+import net.minecraft.loot.context.LootContextParameters;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.registry.Registry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching of block and entity loot against every block state and entity type, through the dispatch tables of a module plan,
+ * and generation of the loot of matching pieces from the vanilla loot tables.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LootMatchingBenchmark {
+	private static final String MODULE = """
+			{
+				"translation": "module.uhc.benchmark",
+				"pieces": [
+					{"type": "uhc:block_loot", "target": {"predicate_type": "minecraft:block_match", "block": "minecraft:iron_ore"}, "loot_table": "minecraft:blocks/iron_block"},
+					{"type": "uhc:block_loot", "target": {"predicate_type": "minecraft:blockstate_match", "block_state": {"Name": "minecraft:gravel"}}, "loot_table": "minecraft:blocks/flint"},
+					{"type": "uhc:block_loot", "target": {"predicate_type": "minecraft:random_block_match", "block": "minecraft:oak_leaves", "probability": 0.1}, "loot_table": "minecraft:blocks/apple", "replace": false},
+					{"type": "uhc:entity_loot", "entity": "minecraft:cow", "loot_table": "minecraft:entities/cow"},
+					{"type": "uhc:entity_loot", "entity": "minecraft:pig", "loot_table": "minecraft:entities/pig"}
+				]
+			}
+			""";
+
+	private ModulePlan plan;
+	private BlockState[] states;
+	private EntityType<?>[] entityTypes;
+	private final Random random = new Random(0);
+	private ModulePlan.BlockLoot[] ironLoot;
+	private ModulePlan.EntityLoot[] cowLoot;
+	private LootContext blockContext;
+	private LootContext entityContext;
+
+	@Setup
+	public void setup() {
+		this.plan = new ModulePlan(List.of(MinecraftBootstrap.decode(Module.CODEC, MODULE)));
+		this.plan.resolve(MinecraftBootstrap.resolver());
+		this.states = Registry.BLOCK.stream().map(block -> block.getDefaultState()).toArray(BlockState[]::new);
+		this.entityTypes = Registry.ENTITY_TYPE.stream().toArray(EntityType[]::new);
+
+		BlockState ironOre = Blocks.IRON_ORE.getDefaultState();
+		this.ironLoot = this.plan.getBlockLoot(ironOre);
+		this.cowLoot = this.plan.getEntityLoot(EntityType.COW);
+		this.blockContext = MinecraftBootstrap.createLootContext(this.random, Map.of(
+				LootContextParameters.ORIGIN, Vec3d.ZERO,
+				LootContextParameters.TOOL, ItemStack.EMPTY,
+				LootContextParameters.BLOCK_STATE, ironOre));
+		this.entityContext = MinecraftBootstrap.createLootContext(this.random, Map.of(
+				LootContextParameters.ORIGIN, Vec3d.ZERO));
+	}
+
+	@Benchmark
+	public int matchBlocks() {
+		int matches = 0;
+		for(BlockState state : this.states) {
+			for(ModulePlan.BlockLoot loot : this.plan.getBlockLoot(state)) {
+				if(!loot.piece().isRandom() || loot.piece().test(state, this.random)) matches++;
+			}
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public int matchEntities() {
+		int matches = 0;
+		for(EntityType<?> type : this.entityTypes) {
+			matches += this.plan.getEntityLoot(type).length;
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public int generateBlockLoot() {
+		int stacks = 0;
+		for(ModulePlan.BlockLoot loot : this.ironLoot) {
+			stacks += loot.getLoots(this.blockContext).size();
+		}
+		return stacks;
+	}
+
+	@Benchmark
+	public int generateEntityLoot() {
+		int stacks = 0;
+		for(ModulePlan.EntityLoot loot : this.cowLoot) {
+			stacks += loot.getLoots(this.entityContext).size();
+		}
+		return stacks;
+	}
+}
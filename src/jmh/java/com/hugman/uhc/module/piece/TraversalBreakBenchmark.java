@@ -0,0 +1,59 @@
+package com.hugman.uhc.module.piece;
+
+import com.hugman.uhc.MinecraftBootstrap;
+import com.hugman.uhc.util.BlockFloodFill;
+import com.hugman.uhc.util.SyntheticBlockStates;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TraversalBreakBenchmark {
+	@Param({"tree", "forest", "ore"})
+	public String shape;
+
+	private TraversalBreakModulePiece piece;
+	private SyntheticBlockStates states;
+	private List<BlockPos> origins;
+	private final BlockFloodFill floodFill = new BlockFloodFill();
+	private final Random random = new Random(0);
+
+	@Setup
+	public void setup() {
+		switch(this.shape) {
+			case "tree" -> {
+				this.piece = MinecraftBootstrap.decode(TraversalBreakModulePiece.CODEC, "{\"target\": {\"predicate_type\": \"minecraft:block_match\", \"block\": \"minecraft:oak_log\"}, \"amount\": 128}");
+				this.states = SyntheticBlockStates.forest(1, 6, 16);
+			}
+			case "forest" -> {
+				this.piece = MinecraftBootstrap.decode(TraversalBreakModulePiece.CODEC, "{\"target\": {\"predicate_type\": \"minecraft:block_match\", \"block\": \"minecraft:oak_log\"}, \"amount\": 128}");
+				this.states = SyntheticBlockStates.forest(64, 6, 5);
+			}
+			case "ore" -> {
+				this.piece = MinecraftBootstrap.decode(TraversalBreakModulePiece.CODEC, "{\"target\": {\"predicate_type\": \"minecraft:block_match\", \"block\": \"minecraft:diamond_ore\"}, \"amount\": 128}");
+				this.states = SyntheticBlockStates.oreCluster(Blocks.DIAMOND_ORE.getDefaultState(), 8, 0.6F, 0L);
+			}
+			default -> throw new IllegalArgumentException("Unknown shape " + this.shape);
+		}
+		this.origins = Collections.singletonList(BlockPos.ORIGIN);
+	}
+
+	@Benchmark
+	public int findBlocks() {
+		return this.piece.findBlocks(this.floodFill, this.states, this.random, this.origins).size();
+	}
+}
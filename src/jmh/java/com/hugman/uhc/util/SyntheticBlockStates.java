@@ -0,0 +1,75 @@
+package com.hugman.uhc.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.LeavesBlock;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Random;
+
+/**
+ * Block states held in memory, to run traversals without a world.
+ */
+public final class SyntheticBlockStates implements BlockFloodFill.BlockStateSource {
+	private final Long2ObjectOpenHashMap<BlockState> states = new Long2ObjectOpenHashMap<>();
+	private final BlockState defaultState;
+
+	public SyntheticBlockStates(BlockState defaultState) {
+		this.defaultState = defaultState;
+		this.states.defaultReturnValue(defaultState);
+	}
+
+	public void set(int x, int y, int z, BlockState state) {
+		this.states.put(BlockPos.asLong(x, y, z), state);
+	}
+
+	@Override
+	public BlockState getBlockState(int x, int y, int z) {
+		return this.states.get(BlockPos.asLong(x, y, z));
+	}
+
+	/**
+	 * A forest of oak trees, with a trunk of the given height and a canopy of leaves whose distance matches the one the game would give them.
+	 */
+	public static SyntheticBlockStates forest(int trees, int height, int spacing) {
+		SyntheticBlockStates states = new SyntheticBlockStates(Blocks.AIR.getDefaultState());
+		int side = (int) Math.ceil(Math.sqrt(trees));
+		for(int i = 0; i < trees; i++) {
+			int originX = (i % side) * spacing;
+			int originZ = (i / side) * spacing;
+			for(int y = 0; y < height; y++) {
+				states.set(originX, y, originZ, Blocks.OAK_LOG.getDefaultState());
+			}
+			for(int dx = -3; dx <= 3; dx++) {
+				for(int dz = -3; dz <= 3; dz++) {
+					for(int y = height - 3; y <= height + 1; y++) {
+						if(dx == 0 && dz == 0 && y < height) continue;
+						int distance = Math.abs(dx) + Math.abs(dz) + Math.max(0, y - height + 1);
+						if(distance > 4) continue;
+						states.set(originX + dx, y, originZ + dz, Blocks.OAK_LEAVES.getDefaultState().with(LeavesBlock.DISTANCE, Math.max(1, Math.min(distance, 7))));
+					}
+				}
+			}
+		}
+		return states;
+	}
+
+	/**
+	 * A cluster of ore in stone, where each block of a cube has the given chance to be an ore.
+	 */
+	public static SyntheticBlockStates oreCluster(BlockState ore, int size, float density, long seed) {
+		SyntheticBlockStates states = new SyntheticBlockStates(Blocks.STONE.getDefaultState());
+		Random random = new Random(seed);
+		for(int x = 0; x < size; x++) {
+			for(int y = 0; y < size; y++) {
+				for(int z = 0; z < size; z++) {
+					if((x == 0 && y == 0 && z == 0) || random.nextFloat() < density) {
+						states.set(x, y, z, ore);
+					}
+				}
+			}
+		}
+		return states;
+	}
+}
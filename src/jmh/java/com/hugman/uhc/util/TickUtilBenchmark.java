@@ -0,0 +1,37 @@
+package com.hugman.uhc.util;
+
+import com.hugman.uhc.MinecraftBootstrap;
+import net.minecraft.text.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TickUtilBenchmark {
+	@Param({"1220", "73220"})
+	public long ticks;
+
+	@Setup
+	public void setup() {
+		MinecraftBootstrap.initialize();
+	}
+
+	@Benchmark
+	public Text format() {
+		return TickUtil.format(this.ticks);
+	}
+
+	@Benchmark
+	public Text formatPretty() {
+		return TickUtil.formatPretty(this.ticks);
+	}
+}
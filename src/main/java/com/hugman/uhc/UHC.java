@@ -2,9 +2,12 @@ package com.hugman.uhc;
 
 import com.google.common.reflect.Reflection;
 import com.hugman.uhc.command.ModulesCommand;
+import com.hugman.uhc.command.PerfCommand;
+import com.hugman.uhc.command.WorldgenCommand;
 import com.hugman.uhc.config.UHCConfig;
 import com.hugman.uhc.game.phase.UHCWaiting;
 import com.hugman.uhc.module.Module;
+import com.hugman.uhc.module.ModulePlan;
 import com.hugman.uhc.module.piece.ModulePieceType;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v1.CommandRegistrationCallback;
@@ -23,8 +26,13 @@ public class UHC implements ModInitializer {
 	@Override
 	public void onInitialize() {
 		Module.register();
+		ModulePlan.register();
 		Reflection.initialize(ModulePieceType.class);
-		CommandRegistrationCallback.EVENT.register((dispatcher, dedicated) -> ModulesCommand.register(dispatcher));
+		CommandRegistrationCallback.EVENT.register((dispatcher, dedicated) -> {
+			ModulesCommand.register(dispatcher);
+			PerfCommand.register(dispatcher);
+			WorldgenCommand.register(dispatcher);
+		});
 		GameType.register(UHC.id("uhc"), UHCConfig.CODEC, UHCWaiting::open);
 	}
 }
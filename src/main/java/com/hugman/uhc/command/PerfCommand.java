@@ -0,0 +1,69 @@
+package com.hugman.uhc.command;
+
+import com.hugman.uhc.game.UHCProfiler;
+import com.hugman.uhc.game.UHCTimeline;
+import com.hugman.uhc.util.TickUtil;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.LiteralText;
+import net.minecraft.text.TranslatableText;
+import net.minecraft.util.Formatting;
+import xyz.nucleoid.plasmid.game.manager.GameSpaceManager;
+import xyz.nucleoid.plasmid.game.manager.ManagedGameSpace;
+
+import java.util.List;
+
+public class PerfCommand {
+	public static final SimpleCommandExceptionType NOT_ACTIVE = new SimpleCommandExceptionType(new TranslatableText("command.uhc.perf.not_active"));
+	private static final int DEFAULT_TOP = 10;
+
+	public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
+		dispatcher.register(
+				CommandManager.literal("uhc")
+						.then(CommandManager.literal("perf")
+								.requires(source -> source.hasPermissionLevel(2) && ModulesCommand.isSourceUHC(source))
+								.executes(context -> displayTop(context, DEFAULT_TOP))
+								.then(CommandManager.literal("top")
+										.then(CommandManager.argument("count", IntegerArgumentType.integer(1, 100))
+												.executes(context -> displayTop(context, IntegerArgumentType.getInteger(context, "count")))))
+								.then(CommandManager.literal("reset")
+										.executes(PerfCommand::reset))));
+	}
+
+	private static UHCProfiler getProfiler(ServerCommandSource source) throws CommandSyntaxException {
+		ManagedGameSpace gameSpace = GameSpaceManager.get().byWorld(source.getWorld());
+		UHCProfiler profiler = gameSpace == null ? null : UHCProfiler.get(gameSpace);
+		if(profiler == null) {
+			throw NOT_ACTIVE.create();
+		}
+		return profiler;
+	}
+
+	private static int displayTop(CommandContext<ServerCommandSource> context, int count) throws CommandSyntaxException {
+		ServerCommandSource source = context.getSource();
+		UHCProfiler profiler = getProfiler(source);
+		List<String> lines = profiler.report(count);
+		source.sendFeedback(new TranslatableText("command.uhc.perf.title").formatted(Formatting.GOLD), false);
+		UHCTimeline.Event next = profiler.getNextEvent();
+		if(next != null) {
+			source.sendFeedback(new TranslatableText("command.uhc.perf.next", next.name(), TickUtil.format(next.tick() - source.getWorld().getTime())).formatted(Formatting.YELLOW), false);
+		}
+		for(String line : lines) {
+			source.sendFeedback(new LiteralText(line).formatted(Formatting.GRAY), false);
+		}
+		return lines.size();
+	}
+
+	private static int reset(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+		ServerCommandSource source = context.getSource();
+		getProfiler(source).reset();
+		source.sendFeedback(new TranslatableText("command.uhc.perf.reset"), false);
+		return Command.SINGLE_SUCCESS;
+	}
+}
@@ -0,0 +1,53 @@
+package com.hugman.uhc.command;
+
+import com.hugman.uhc.map.UHCChunkGenerator;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.LiteralText;
+import net.minecraft.text.TranslatableText;
+import net.minecraft.util.Formatting;
+
+public class WorldgenCommand {
+	public static final SimpleCommandExceptionType NOT_UHC_WORLD = new SimpleCommandExceptionType(new TranslatableText("command.uhc.worldgen.not_uhc_world"));
+
+	public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
+		dispatcher.register(
+				CommandManager.literal("uhc")
+						.then(CommandManager.literal("worldgen")
+								.requires(source -> source.hasPermissionLevel(2) && ModulesCommand.isSourceUHC(source))
+								.executes(WorldgenCommand::displayTimings)
+								.then(CommandManager.literal("reset")
+										.executes(WorldgenCommand::resetTimings))));
+	}
+
+	private static UHCChunkGenerator getGenerator(ServerCommandSource source) throws CommandSyntaxException {
+		ServerWorld world = source.getWorld();
+		if(world.getChunkManager().getChunkGenerator() instanceof UHCChunkGenerator generator) {
+			return generator;
+		}
+		throw NOT_UHC_WORLD.create();
+	}
+
+	private static int displayTimings(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+		ServerCommandSource source = context.getSource();
+		UHCChunkGenerator generator = getGenerator(source);
+		source.sendFeedback(new TranslatableText("command.uhc.worldgen.title").formatted(Formatting.GOLD), false);
+		for(String line : generator.getTimings().report(source.getServer().getRegistryManager())) {
+			source.sendFeedback(new LiteralText(line).formatted(Formatting.GRAY), false);
+		}
+		return Command.SINGLE_SUCCESS;
+	}
+
+	private static int resetTimings(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+		ServerCommandSource source = context.getSource();
+		getGenerator(source).getTimings().reset();
+		source.sendFeedback(new TranslatableText("command.uhc.worldgen.reset"), false);
+		return Command.SINGLE_SUCCESS;
+	}
+}
@@ -2,17 +2,15 @@ package com.hugman.uhc.config;
 
 import com.hugman.uhc.UHCRegistries;
 import com.hugman.uhc.module.Module;
+import com.hugman.uhc.module.ModulePlan;
 import com.hugman.uhc.module.piece.ModulePiece;
 import com.hugman.uhc.module.piece.ModulePieceType;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import xyz.nucleoid.plasmid.game.common.config.PlayerConfig;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class UHCConfig {
 	public static final Codec<UHCConfig> CODEC = RecordCodecBuilder.create(instance -> instance.group(
@@ -20,30 +18,29 @@ public class UHCConfig {
 					Codec.INT.fieldOf("team_size").forGetter(UHCConfig::teamSize),
 					UHCMapConfig.CODEC.fieldOf("map").forGetter(UHCConfig::mapConfig),
 					UHCChapterConfig.CODEC.fieldOf("chapters").forGetter(UHCConfig::timeConfig),
-					UHCRegistries.MODULES.listOf().optionalFieldOf("modules", Collections.emptyList()).forGetter(UHCConfig::modules))
+					UHCRegistries.MODULES.listOf().optionalFieldOf("modules", Collections.emptyList()).forGetter(UHCConfig::modules),
+					UHCPerformanceConfig.CODEC.optionalFieldOf("performance", UHCPerformanceConfig.DEFAULT).forGetter(UHCConfig::performanceConfig),
+					Codec.BOOL.optionalFieldOf("graves", false).forGetter(UHCConfig::graves))
 			.apply(instance, UHCConfig::new));
 	private final PlayerConfig playerConfig;
 	private final int teamSize;
 	private final UHCMapConfig mapConfig;
 	private final UHCChapterConfig timeConfig;
 	private final List<Module> modules;
+	private final UHCPerformanceConfig performanceConfig;
+	private final boolean graves;
 
-	private final Map<ModulePieceType<?>, List<ModulePiece>> modulePieces;
+	private final ModulePlan plan;
 
-	public UHCConfig(PlayerConfig players, int teamSize, UHCMapConfig mapConfig, UHCChapterConfig timeConfig, List<Module> modules) {
+	public UHCConfig(PlayerConfig players, int teamSize, UHCMapConfig mapConfig, UHCChapterConfig timeConfig, List<Module> modules, UHCPerformanceConfig performanceConfig, boolean graves) {
 		this.playerConfig = players;
 		this.teamSize = teamSize;
 		this.mapConfig = mapConfig;
 		this.timeConfig = timeConfig;
 		this.modules = modules;
-
-		this.modulePieces = new HashMap<>();
-		for(Module module : modules) {
-			for(ModulePiece modulePiece : module.pieces()) {
-				if(!modulePieces.containsKey(modulePiece.getType())) modulePieces.put(modulePiece.getType(), new ArrayList<>());
-				modulePieces.get(modulePiece.getType()).add(modulePiece);
-			}
-		}
+		this.performanceConfig = performanceConfig;
+		this.graves = graves;
+		this.plan = new ModulePlan(modules);
 	}
 
 	public PlayerConfig playerConfig() {
@@ -66,8 +63,22 @@ public class UHCConfig {
 		return modules;
 	}
 
+	public UHCPerformanceConfig performanceConfig() {
+		return performanceConfig;
+	}
+
+	/**
+	 * Whether the inventory of eliminated players goes into a chest where they died, instead of being scattered.
+	 */
+	public boolean graves() {
+		return graves;
+	}
+
+	public ModulePlan plan() {
+		return plan;
+	}
+
 	public <V extends ModulePiece> List<V> getModulesPieces(ModulePieceType<V> pieceType) {
-		if(!modulePieces.containsKey(pieceType)) return Collections.emptyList();
-		return (List<V>) modulePieces.get(pieceType);
+		return plan.get(pieceType);
 	}
 }
@@ -9,13 +9,18 @@ import net.minecraft.world.dimension.DimensionType;
 import net.minecraft.world.gen.chunk.ChunkGeneratorSettings;
 
 
-public record UHCMapConfig(Identifier dimension, ChunkGeneratorSettings chunkSettings, DoubleRange startSize, DoubleRange endSize, double shrinkingSpeed, int spawnOffset) {
+public record UHCMapConfig(Identifier dimension, ChunkGeneratorSettings chunkSettings, DoubleRange startSize, DoubleRange endSize, double shrinkingSpeed, int spawnOffset, boolean pregenerate, int pregenerationConcurrency, boolean mapPool, boolean voidOutsideBorder, int borderMargin) {
 	public static final Codec<UHCMapConfig> CODEC = RecordCodecBuilder.create(instance -> instance.group(
 			Identifier.CODEC.optionalFieldOf("dimension", DimensionType.OVERWORLD_ID).forGetter(UHCMapConfig::dimension),
 			BuiltinRegistries.CHUNK_GENERATOR_SETTINGS.getCodec().fieldOf("settings").forGetter(UHCMapConfig::chunkSettings),
 			DoubleRange.CODEC.fieldOf("start_size").forGetter(UHCMapConfig::startSize),
 			DoubleRange.CODEC.optionalFieldOf("end_size", new DoubleRange(15, 40)).forGetter(UHCMapConfig::endSize),
 			Codec.DOUBLE.optionalFieldOf("shrinking_speed", 1.0D).forGetter(UHCMapConfig::shrinkingSpeed),
-			Codec.INT.optionalFieldOf("spawn_offset", 40).forGetter(UHCMapConfig::spawnOffset)
+			Codec.INT.optionalFieldOf("spawn_offset", 40).forGetter(UHCMapConfig::spawnOffset),
+			Codec.BOOL.optionalFieldOf("pregenerate", false).forGetter(UHCMapConfig::pregenerate),
+			Codec.intRange(1, 256).optionalFieldOf("pregeneration_concurrency", 16).forGetter(UHCMapConfig::pregenerationConcurrency),
+			Codec.BOOL.optionalFieldOf("map_pool", false).forGetter(UHCMapConfig::mapPool),
+			Codec.BOOL.optionalFieldOf("void_outside_border", false).forGetter(UHCMapConfig::voidOutsideBorder),
+			Codec.intRange(0, 32).optionalFieldOf("border_margin", 2).forGetter(UHCMapConfig::borderMargin)
 	).apply(instance, UHCMapConfig::new));
 }
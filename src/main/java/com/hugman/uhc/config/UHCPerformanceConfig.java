@@ -0,0 +1,14 @@
+package com.hugman.uhc.config;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+public record UHCPerformanceConfig(int breakBudget, int teleportBudget, int sidebarInterval) {
+	public static final UHCPerformanceConfig DEFAULT = new UHCPerformanceConfig(32, 8, 20);
+
+	public static final Codec<UHCPerformanceConfig> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+			Codec.intRange(1, 4096).optionalFieldOf("break_budget", DEFAULT.breakBudget()).forGetter(UHCPerformanceConfig::breakBudget),
+			Codec.intRange(1, 1024).optionalFieldOf("teleport_budget", DEFAULT.teleportBudget()).forGetter(UHCPerformanceConfig::teleportBudget),
+			Codec.intRange(1, 200).optionalFieldOf("sidebar_interval", DEFAULT.sidebarInterval()).forGetter(UHCPerformanceConfig::sidebarInterval)
+	).apply(instance, UHCPerformanceConfig::new));
+}
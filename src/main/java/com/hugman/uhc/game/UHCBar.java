@@ -14,8 +14,14 @@ import xyz.nucleoid.plasmid.game.common.GlobalWidgets;
 import xyz.nucleoid.plasmid.game.common.widget.BossBarWidget;
 
 public class UHCBar {
+	/**
+	 * Remaining seconds at which the countdown is announced in the chat.
+	 */
+	public static final long[] ANNOUNCED_SECONDS = {1, 2, 3, 4, 5, 10, 15, 30, 60, 150, 300, 600, 900, 1800};
+
 	private final BossBarWidget widget;
-	private final GameSpace gameSpace;
+	private final UHCBroadcaster broadcaster;
+	private final UHCTimeLabels timeLabels;
 	private String symbol;
 	private String name;
 	private String message;
@@ -23,14 +29,16 @@ public class UHCBar {
 	private long endTick = 0;
 	private long totalTicks = 0;
 	private boolean canTick = false;
+	private Text[] titles = new Text[0];
 
-	private UHCBar(BossBarWidget widget, GameSpace gameSpace) {
+	private UHCBar(BossBarWidget widget, UHCBroadcaster broadcaster, UHCTimeLabels timeLabels) {
 		this.widget = widget;
-		this.gameSpace = gameSpace;
+		this.broadcaster = broadcaster;
+		this.timeLabels = timeLabels;
 	}
 
-	public static UHCBar create(GlobalWidgets widgets, GameSpace gameSpace) {
-		return new UHCBar(widgets.addBossBar(gameSpace.getMetadata().sourceConfig().name(), BossBar.Color.BLUE, BossBar.Style.PROGRESS), gameSpace);
+	public static UHCBar create(GlobalWidgets widgets, GameSpace gameSpace, UHCBroadcaster broadcaster, UHCTimeLabels timeLabels) {
+		return new UHCBar(widgets.addBossBar(gameSpace.getMetadata().sourceConfig().name(), BossBar.Color.BLUE, BossBar.Style.PROGRESS), broadcaster, timeLabels);
 	}
 
 	public void set(String symbol, String name, long totalTicks, long endTick, BossBar.Color color) {
@@ -41,6 +49,15 @@ public class UHCBar {
 		this.endTick = endTick;
 		this.color = color;
 		this.canTick = true;
+
+		this.titles = new Text[(int) TickUtil.asSeconds(totalTicks) + 1];
+		for(int seconds = 0; seconds < this.titles.length; seconds++) {
+			this.titles[seconds] = this.buildTitle(seconds);
+		}
+	}
+
+	private Text buildTitle(long seconds) {
+		return new LiteralText(this.symbol).append(new TranslatableText(this.name, this.timeLabels.getLabel(seconds)));
 	}
 
 	public void set(String name, long totalTicks, long endTick, BossBar.Color color) {
@@ -70,23 +87,28 @@ public class UHCBar {
 			long totalSeconds = TickUtil.asSeconds(totalTicks);
 
 			BossBar.Color newColor = this.color;
-			if(seconds <= 5 || seconds == 10 || seconds == 15 || seconds == 30 || seconds == 60 || seconds == 150 || seconds == 300 || seconds == 600 || seconds == 900 || seconds == 1800) {
+			if(seconds <= 5 || isAnnounced(seconds)) {
 				sendMessage(seconds);
 				newColor = BossBar.Color.RED;
 			}
-			this.widget.setTitle(new LiteralText(symbol).append(new TranslatableText(name, TickUtil.format(ticks))));
+			this.widget.setTitle(seconds >= 0 && seconds < this.titles.length ? this.titles[(int) seconds] : this.buildTitle(seconds));
 			this.widget.setStyle(newColor, BossBar.Style.NOTCHED_10);
 			this.widget.setProgress((float) seconds / totalSeconds);
 		}
 	}
 
+	private static boolean isAnnounced(long seconds) {
+		for(long announced : ANNOUNCED_SECONDS) {
+			if(announced == seconds) return true;
+		}
+		return false;
+	}
+
 	private void sendMessage(long seconds) {
 		float pitch = seconds == 0 ? 1.5F : 1.0F;
-		gameSpace.getPlayers().forEach(entity -> {
-			if(this.message != null && seconds != 0) {
-				entity.sendMessage(new LiteralText(symbol).append(new TranslatableText(this.message, TickUtil.formatPretty(seconds * 20).formatted(Formatting.RED))).formatted(Formatting.GOLD), false);
-			}
-			entity.playSound(SoundEvents.ENTITY_EXPERIENCE_ORB_PICKUP, SoundCategory.PLAYERS, 1.0F, pitch);
-		});
+		if(this.message != null && seconds != 0) {
+			this.broadcaster.sendMessage(new LiteralText(symbol).append(new TranslatableText(this.message, this.timeLabels.getAnnouncement(seconds))).formatted(Formatting.GOLD));
+		}
+		this.broadcaster.playSound(SoundEvents.ENTITY_EXPERIENCE_ORB_PICKUP, SoundCategory.PLAYERS, 1.0F, pitch);
 	}
 }
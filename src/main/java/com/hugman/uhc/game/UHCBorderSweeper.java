@@ -0,0 +1,75 @@
+package com.hugman.uhc.game;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.border.WorldBorder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cleans up what is left behind the world border while it shrinks.
+ * <p>
+ * Every few ticks, the sweeper looks for dropped items and mobs that are well outside of the border, then discards them a few at a time.
+ * Items dropped by players, including the inventory of eliminated players, and mobs that should stay are left alone.
+ * <p>
+ * Each scan goes through every entity of the world. The sweeper only removes entities: it does not release chunk tickets or unload chunks,
+ * which the world does on its own once no player is near them.
+ */
+public class UHCBorderSweeper {
+	private static final int SCAN_INTERVAL = 40;
+	private static final int DISCARDS_PER_TICK = 64;
+	private static final double MARGIN = 32.0D;
+
+	private final ServerWorld world;
+	private final List<Entity> pending = new ArrayList<>();
+	private int pendingIndex = 0;
+	private boolean started = false;
+	private long ticks = 0;
+
+	public UHCBorderSweeper(ServerWorld world) {
+		this.world = world;
+	}
+
+	public void start() {
+		this.started = true;
+	}
+
+	public void tick() {
+		if(!this.started) return;
+
+		WorldBorder border = this.world.getWorldBorder();
+		if(this.ticks++ % SCAN_INTERVAL == 0 && this.pendingIndex >= this.pending.size()) {
+			this.scan(border);
+		}
+
+		int end = Math.min(this.pendingIndex + DISCARDS_PER_TICK, this.pending.size());
+		for(; this.pendingIndex < end; this.pendingIndex++) {
+			Entity entity = this.pending.get(this.pendingIndex);
+			if(!entity.isRemoved()) {
+				entity.discard();
+			}
+		}
+		if(this.pendingIndex >= this.pending.size() && !this.pending.isEmpty()) {
+			this.pending.clear();
+			this.pendingIndex = 0;
+		}
+	}
+
+	private void scan(WorldBorder border) {
+		for(Entity entity : this.world.iterateEntities()) {
+			if(border.getDistanceInsideBorder(entity) <= -MARGIN && canDiscard(entity)) {
+				this.pending.add(entity);
+			}
+		}
+	}
+
+	private static boolean canDiscard(Entity entity) {
+		if(entity instanceof ItemEntity item) {
+			return item.getThrower() == null && item.getOwner() == null;
+		}
+		return entity instanceof MobEntity mob && !mob.isPersistent() && !mob.hasCustomName() && !mob.hasPassengers() && !mob.hasVehicle();
+	}
+}
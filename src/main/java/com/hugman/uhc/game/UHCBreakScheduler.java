@@ -0,0 +1,116 @@
+package com.hugman.uhc.game;
+
+import com.hugman.uhc.module.piece.TraversalBreakModulePiece;
+import com.hugman.uhc.util.BlockFloodFill;
+import com.hugman.uhc.util.CachedBlockStates;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.entity.Entity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+
+/**
+ * Breaks the blocks found by traversals over several ticks, with a limited amount of blocks broken each tick.
+ * <p>
+ * Blocks of a traversal are broken in the order they were found, so going outward from where it started.
+ * When several traversals are running, they take turns block by block.
+ * What the blocks of a traversal drop is collected by a {@link UHCDropAggregator}, then spawned where the traversal started once all of its blocks are broken.
+ * Only the broken blocks' own drops are collected: blocks popped by the neighbor updates of a break drop where they are.
+ * <p>
+ * A block is only broken if it is still the block that was found, so that blocks placed on a scheduled position in the meantime are left alone.
+ * Only the block is compared and not its whole state, since states such as the distance of leaves change as the traversal goes.
+ */
+public class UHCBreakScheduler {
+	private final ServerWorld world;
+	private final int budget;
+	private final UHCDropAggregator dropAggregator;
+	private final ArrayDeque<Job> jobs = new ArrayDeque<>();
+	private final BlockFloodFill floodFill = new BlockFloodFill();
+	private final CachedBlockStates states = new CachedBlockStates();
+
+	public UHCBreakScheduler(ServerWorld world, int budget, UHCDropAggregator dropAggregator) {
+		this.world = world;
+		this.budget = budget;
+		this.dropAggregator = dropAggregator;
+	}
+
+	/**
+	 * Finds the blocks that the piece breaks along with the given origins, then schedules them.
+	 */
+	public void schedule(TraversalBreakModulePiece piece, Collection<BlockPos> origins, @Nullable Entity entity) {
+		LongList positions = piece.findBlocks(this.floodFill, this.states.bind(this.world), this.world.getRandom(), origins);
+		this.states.bind(null);
+		if(!positions.isEmpty()) {
+			this.jobs.add(new Job(positions.toLongArray(), this.floodFill.getResultStates().toIntArray(), entity));
+		}
+	}
+
+	public void tick() {
+		int budget = this.budget;
+		while(budget > 0 && !this.jobs.isEmpty()) {
+			Job job = this.jobs.poll();
+			Entity entity = job.entity != null && !job.entity.isRemoved() ? job.entity : null;
+			Block expected = Block.getStateFromRawId(job.states[job.index]).getBlock();
+			if(this.breakBlock(BlockPos.fromLong(job.positions[job.index++]), expected, entity, job.drops)) {
+				budget--;
+			}
+			if(job.index < job.positions.length) {
+				this.jobs.add(job);
+			}
+			else {
+				job.drops.spawn(this.world, BlockPos.fromLong(job.positions[0]));
+			}
+		}
+	}
+
+	/**
+	 * Breaks a block like {@link ServerWorld#breakBlock(BlockPos, boolean, Entity)} does, but with only its own drops going to the batch.
+	 * Nothing happens if the block is no longer the expected one.
+	 */
+	private boolean breakBlock(BlockPos pos, Block expected, @Nullable Entity entity, UHCDropAggregator.Batch drops) {
+		BlockState state = this.world.getBlockState(pos);
+		if(state.isAir() || !state.isOf(expected)) return false;
+
+		BlockEntity blockEntity = state.hasBlockEntity() ? this.world.getBlockEntity(pos) : null;
+		this.dropAggregator.begin(drops);
+		try {
+			Block.dropStacks(state, this.world, pos, blockEntity, entity, ItemStack.EMPTY);
+		}
+		finally {
+			this.dropAggregator.end();
+		}
+		return this.world.breakBlock(pos, false, entity);
+	}
+
+	/**
+	 * Spawns what the running traversals have collected so far, then forgets them.
+	 */
+	public void close() {
+		for(Job job : this.jobs) {
+			job.drops.spawn(this.world, BlockPos.fromLong(job.positions[0]));
+		}
+		this.jobs.clear();
+	}
+
+	private static final class Job {
+		private final long[] positions;
+		private final int[] states;
+		@Nullable
+		private final Entity entity;
+		private final UHCDropAggregator.Batch drops = new UHCDropAggregator.Batch();
+		private int index = 0;
+
+		private Job(long[] positions, int[] states, @Nullable Entity entity) {
+			this.positions = positions;
+			this.states = states;
+			this.entity = entity;
+		}
+	}
+}
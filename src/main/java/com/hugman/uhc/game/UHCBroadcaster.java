@@ -0,0 +1,111 @@
+package com.hugman.uhc.game;
+
+import com.hugman.uhc.UHC;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import net.minecraft.network.ClientConnection;
+import net.minecraft.network.MessageType;
+import net.minecraft.network.NetworkSide;
+import net.minecraft.network.NetworkState;
+import net.minecraft.network.Packet;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.packet.s2c.play.GameMessageS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlaySoundS2CPacket;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.sound.SoundEvent;
+import net.minecraft.text.Text;
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.plasmid.game.GameSpace;
+import xyz.nucleoid.plasmid.game.player.PlayerSet;
+
+/**
+ * Sends messages and sounds to every player of a game.
+ * <p>
+ * A message is encoded once into a buffer, and that same buffer is written to every connection, instead of building a text and encoding a packet for each player.
+ * The buffer goes through the rest of the pipeline of each connection, so compression and encryption still apply.
+ * Local connections do not encode packets at all, so they get the packet itself, as do connections without a channel.
+ * Sounds are played at the position of each player, so they still need one packet per player.
+ * <p>
+ * The amount of packets sent is kept, along with the bytes of the encoded ones, and reported once the game closes.
+ */
+public class UHCBroadcaster {
+	private final GameSpace gameSpace;
+	private long packets = 0;
+	private long bytes = 0;
+
+	public UHCBroadcaster(GameSpace gameSpace) {
+		this.gameSpace = gameSpace;
+	}
+
+	public void sendMessage(Text text) {
+		this.broadcast(new GameMessageS2CPacket(text, MessageType.CHAT, Util.NIL_UUID));
+	}
+
+	public void playSound(SoundEvent sound) {
+		this.playSound(sound, SoundCategory.PLAYERS, 1.0F, 1.0F);
+	}
+
+	public void playSound(SoundEvent sound, SoundCategory category, float volume, float pitch) {
+		PlayerSet players = this.gameSpace.getPlayers();
+		if(players.isEmpty()) return;
+
+		players.forEach(player -> player.networkHandler.sendPacket(new PlaySoundS2CPacket(sound, category, player.getX(), player.getY(), player.getZ(), volume, pitch)));
+		this.packets += players.size();
+	}
+
+	public void broadcast(Packet<?> packet) {
+		PlayerSet players = this.gameSpace.getPlayers();
+		if(players.isEmpty()) return;
+
+		ByteBuf encoded = encode(packet);
+		if(encoded == null) {
+			players.forEach(player -> player.networkHandler.sendPacket(packet));
+			this.packets += players.size();
+			return;
+		}
+		try {
+			players.forEach(player -> {
+				ClientConnection connection = player.networkHandler.getConnection();
+				if(connection.channel == null || connection.isLocal()) {
+					connection.send(packet);
+				}
+				else if(connection.isOpen()) {
+					connection.channel.writeAndFlush(encoded.retainedDuplicate()).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+					this.bytes += encoded.readableBytes();
+				}
+			});
+			this.packets += players.size();
+		} finally {
+			encoded.release();
+		}
+	}
+
+	/**
+	 * Encodes a packet the way the packet encoder of a connection would, with its id first.
+	 *
+	 * @return the encoded packet, or {@code null} if it is not a packet of the play state
+	 */
+	@Nullable
+	private static ByteBuf encode(Packet<?> packet) {
+		Integer id = NetworkState.PLAY.getPacketId(NetworkSide.CLIENTBOUND, packet);
+		if(id == null) return null;
+		PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+		buf.writeVarInt(id);
+		packet.write(buf);
+		return buf;
+	}
+
+	public long getPackets() {
+		return this.packets;
+	}
+
+	public long getBytes() {
+		return this.bytes;
+	}
+
+	public void report() {
+		UHC.LOGGER.info("Broadcast {} packets and {} encoded bytes to the players of {}", this.packets, this.bytes, this.gameSpace.getMetadata().sourceConfig().name().getString());
+	}
+}
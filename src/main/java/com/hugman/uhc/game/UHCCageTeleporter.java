@@ -0,0 +1,90 @@
+package com.hugman.uhc.game;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import xyz.nucleoid.plasmid.game.common.team.GameTeam;
+import xyz.nucleoid.plasmid.game.common.team.TeamManager;
+import xyz.nucleoid.plasmid.game.player.PlayerSet;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Teleports teams into their cages over several ticks, with a limited amount of players moved each tick.
+ * <p>
+ * A team is only moved once the chunks of its cage are loaded, and always all at once.
+ * Teams whose cage takes too long to load are moved anyway, loading the chunks on the spot.
+ */
+public class UHCCageTeleporter {
+	private static final int MAX_WAIT_TICKS = 200;
+
+	private final UHCSpawner spawner;
+	private final TeamManager teamManager;
+	private final int budget;
+	private final ArrayDeque<GameTeam> pending = new ArrayDeque<>();
+
+	private Consumer<ServerPlayerEntity> preparePlayer;
+	private Runnable onFinished;
+	private boolean running = false;
+	private int waitTicks = 0;
+	private int total = 0;
+
+	public UHCCageTeleporter(UHCSpawner spawner, TeamManager teamManager, int budget) {
+		this.spawner = spawner;
+		this.teamManager = teamManager;
+		this.budget = budget;
+	}
+
+	/**
+	 * @param preparePlayer called on every player right before they get teleported
+	 * @param onFinished    called once every team is in its cage
+	 */
+	public void start(Collection<GameTeam> teams, Consumer<ServerPlayerEntity> preparePlayer, Runnable onFinished) {
+		this.pending.clear();
+		this.pending.addAll(teams);
+		this.total = teams.size();
+		this.preparePlayer = preparePlayer;
+		this.onFinished = onFinished;
+		this.running = true;
+		this.waitTicks = 0;
+	}
+
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	public float getProgress() {
+		return this.total == 0 ? 1.0F : 1.0F - (float) this.pending.size() / this.total;
+	}
+
+	public void tick() {
+		if(!this.running) return;
+
+		int budget = this.budget;
+		int skipped = 0;
+		boolean force = ++this.waitTicks > MAX_WAIT_TICKS;
+		while(!this.pending.isEmpty() && skipped < this.pending.size()) {
+			GameTeam team = this.pending.poll();
+			PlayerSet players = this.teamManager.playersIn(team.key());
+			if((!force && !this.spawner.isCageReady(team)) || (players.size() > budget && budget != this.budget)) {
+				this.pending.add(team);
+				skipped++;
+				continue;
+			}
+
+			this.spawner.summonCage(team);
+			players.forEach(player -> {
+				this.preparePlayer.accept(player);
+				this.spawner.putParticipantInCage(team, player);
+			});
+			budget -= players.size();
+			this.waitTicks = 0;
+			if(budget <= 0) break;
+		}
+
+		if(this.pending.isEmpty()) {
+			this.running = false;
+			this.onFinished.run();
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.hugman.uhc.game;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Keeps the last few participants who hit each participant, so that kills can be credited even when the final blow is a fall or a fire.
+ * <p>
+ * Hits are written into fixed-size ring buffers indexed by participant, so recording one does not allocate.
+ * The participants with the most kills are kept in a small ranking, updated on every kill.
+ */
+public class UHCCombatTracker {
+	public static final int RANKING_SIZE = 3;
+	private static final int HISTORY = 4;
+	private static final long COMBAT_TIME = 600;
+
+	private final Object2IntMap<ServerPlayerEntity> indices = new Object2IntOpenHashMap<>();
+	private final ServerPlayerEntity[] players;
+	private final UHCParticipant[] participants;
+	private final int[] attackers;
+	private final long[] times;
+	private final int[] heads;
+	private final int[] ranking = new int[RANKING_SIZE];
+	private int rankingSize = 0;
+
+	public UHCCombatTracker(Map<ServerPlayerEntity, UHCParticipant> participants) {
+		int size = participants.size();
+		this.players = new ServerPlayerEntity[size];
+		this.participants = new UHCParticipant[size];
+		this.attackers = new int[size * HISTORY];
+		this.times = new long[size * HISTORY];
+		this.heads = new int[size];
+		this.indices.defaultReturnValue(-1);
+		Arrays.fill(this.attackers, -1);
+
+		int index = 0;
+		for(Map.Entry<ServerPlayerEntity, UHCParticipant> entry : participants.entrySet()) {
+			this.players[index] = entry.getKey();
+			this.participants[index] = entry.getValue();
+			this.indices.put(entry.getKey(), index++);
+		}
+	}
+
+	public void recordHit(ServerPlayerEntity victim, ServerPlayerEntity attacker, long time) {
+		int victimIndex = this.indices.getInt(victim);
+		int attackerIndex = this.indices.getInt(attacker);
+		if(victimIndex < 0 || attackerIndex < 0 || victimIndex == attackerIndex) return;
+
+		int head = this.heads[victimIndex];
+		int slot = victimIndex * HISTORY + head;
+		this.attackers[slot] = attackerIndex;
+		this.times[slot] = time;
+		this.heads[victimIndex] = (head + 1) % HISTORY;
+	}
+
+	/**
+	 * Credits a kill for the death of a participant, to the entity that dealt the final blow if it is a participant, or else to the last participant who hit them recently.
+	 * Participants who are still alive are preferred over the ones who got eliminated since their hit.
+	 *
+	 * @return the credited participant, if any
+	 */
+	@Nullable
+	public ServerPlayerEntity creditKill(ServerPlayerEntity victim, @Nullable Entity directAttacker, long time) {
+		int victimIndex = this.indices.getInt(victim);
+		if(victimIndex < 0) return null;
+
+		int killerIndex = directAttacker instanceof ServerPlayerEntity ? this.indices.getInt(directAttacker) : -1;
+		if(killerIndex < 0 || killerIndex == victimIndex) {
+			killerIndex = this.findLastAttacker(victimIndex, time);
+		}
+		Arrays.fill(this.attackers, victimIndex * HISTORY, (victimIndex + 1) * HISTORY, -1);
+		if(killerIndex < 0) return null;
+
+		this.participants[killerIndex].addKill();
+		this.updateRanking(killerIndex);
+		return this.players[killerIndex];
+	}
+
+	private int findLastAttacker(int victimIndex, long time) {
+		int eliminatedAttacker = -1;
+		for(int i = 1; i <= HISTORY; i++) {
+			int slot = victimIndex * HISTORY + Math.floorMod(this.heads[victimIndex] - i, HISTORY);
+			int attacker = this.attackers[slot];
+			if(attacker < 0 || time - this.times[slot] > COMBAT_TIME) break;
+			if(!this.participants[attacker].isEliminated()) return attacker;
+			if(eliminatedAttacker < 0) eliminatedAttacker = attacker;
+		}
+		return eliminatedAttacker;
+	}
+
+	private void updateRanking(int index) {
+		int rank = 0;
+		while(rank < this.rankingSize && this.ranking[rank] != index) rank++;
+		if(rank == this.rankingSize) {
+			if(this.rankingSize < RANKING_SIZE) {
+				this.rankingSize++;
+			}
+			else if(this.getKills(index) > this.getKills(this.ranking[RANKING_SIZE - 1])) {
+				rank = RANKING_SIZE - 1;
+			}
+			else {
+				return;
+			}
+			this.ranking[rank] = index;
+		}
+		while(rank > 0 && this.getKills(this.ranking[rank]) > this.getKills(this.ranking[rank - 1])) {
+			int previous = this.ranking[rank - 1];
+			this.ranking[rank - 1] = this.ranking[rank];
+			this.ranking[rank] = previous;
+			rank--;
+		}
+	}
+
+	private int getKills(int index) {
+		return this.participants[index].getKills();
+	}
+
+	/**
+	 * @return the participant at the given rank of the kill ranking, if there is one
+	 */
+	@Nullable
+	public ServerPlayerEntity getRanked(int rank) {
+		return rank < this.rankingSize ? this.players[this.ranking[rank]] : null;
+	}
+
+	public int getRankedKills(int rank) {
+		return rank < this.rankingSize ? this.getKills(this.ranking[rank]) : 0;
+	}
+}
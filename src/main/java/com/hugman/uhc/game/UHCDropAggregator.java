@@ -0,0 +1,81 @@
+package com.hugman.uhc.game;
+
+import net.minecraft.block.Block;
+import net.minecraft.entity.ExperienceOrbEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the items and experience dropped by the blocks of a mass break, so that they can be spawned as a few merged entities once the break is over.
+ * <p>
+ * Drops are only collected while a batch is open, which is while {@link UHCBreakScheduler} drops the stacks of a block it breaks.
+ */
+public class UHCDropAggregator {
+	@Nullable
+	private Batch batch;
+
+	public void begin(Batch batch) {
+		this.batch = batch;
+	}
+
+	public void end() {
+		this.batch = null;
+	}
+
+	/**
+	 * @return the batch drops should go to, if there is one open
+	 */
+	@Nullable
+	public Batch getBatch() {
+		return this.batch;
+	}
+
+	public static final class Batch {
+		private final List<ItemStack> stacks = new ArrayList<>();
+		private int experience = 0;
+
+		public void addStacks(List<ItemStack> stacks) {
+			for(ItemStack stack : stacks) {
+				this.addStack(stack);
+			}
+		}
+
+		private void addStack(ItemStack stack) {
+			for(ItemStack existing : this.stacks) {
+				if(stack.isEmpty()) return;
+				if(existing.getCount() < existing.getMaxCount() && ItemStack.canCombine(existing, stack)) {
+					int moved = Math.min(stack.getCount(), existing.getMaxCount() - existing.getCount());
+					existing.increment(moved);
+					stack.decrement(moved);
+				}
+			}
+			if(!stack.isEmpty()) {
+				this.stacks.add(stack);
+			}
+		}
+
+		public void addExperience(int experience) {
+			this.experience += experience;
+		}
+
+		/**
+		 * Spawns everything collected so far at the given position, then empties the batch.
+		 */
+		public void spawn(ServerWorld world, BlockPos pos) {
+			for(ItemStack stack : this.stacks) {
+				Block.dropStack(world, pos, stack);
+			}
+			if(this.experience > 0) {
+				ExperienceOrbEntity.spawn(world, Vec3d.ofCenter(pos), this.experience);
+			}
+			this.stacks.clear();
+			this.experience = 0;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.hugman.uhc.game;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.ChestBlock;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.ChestBlockEntity;
+import net.minecraft.block.enums.ChestType;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.UUID;
+
+/**
+ * Puts the inventory of eliminated players into a chest, so that it does not turn into dozens of item entities.
+ */
+public final class UHCGraves {
+	private static final int CHEST_SIZE = 27;
+	private static final int MAX_RISE = 3;
+
+	/**
+	 * Moves every stack of the inventory into a chest placed at the given position, or a little above it if something is in the way.
+	 * A double chest is used when the stacks do not fit in a single one.
+	 *
+	 * @return whether the chest could be placed. When it could not, the inventory is left untouched.
+	 */
+	public static boolean dig(ServerWorld world, BlockPos deathPos, Inventory inventory) {
+		int stacks = 0;
+		for(int i = 0; i < inventory.size(); i++) {
+			if(!inventory.getStack(i).isEmpty()) stacks++;
+		}
+		if(stacks == 0) return true;
+		boolean isDouble = stacks > CHEST_SIZE;
+		if(stacks > CHEST_SIZE * 2) return false;
+
+		int y = MathHelper.clamp(deathPos.getY(), world.getBottomY(), world.getTopY() - 1);
+		BlockPos.Mutable pos = new BlockPos.Mutable(deathPos.getX(), y, deathPos.getZ());
+		for(int rise = 0; rise <= MAX_RISE && !world.isOutOfHeightLimit(pos); rise++, pos.move(Direction.UP)) {
+			if(canReplace(world, pos) && (!isDouble || canReplace(world, pos.east()))) {
+				return place(world, pos.toImmutable(), isDouble, inventory);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Scatters every stack of the inventory around the given position exactly like {@link net.minecraft.util.ItemScatterer} does, but with the given player as the thrower of every item, so that the border sweeper leaves them alone.
+	 */
+	public static void scatter(ServerWorld world, BlockPos pos, Inventory inventory, UUID thrower) {
+		double width = EntityType.ITEM.getWidth();
+		for(int i = 0; i < inventory.size(); i++) {
+			ItemStack stack = inventory.getStack(i);
+			double x = pos.getX() + world.random.nextDouble() * (1.0D - width) + width / 2.0D;
+			double y = pos.getY() + world.random.nextDouble() * (1.0D - width);
+			double z = pos.getZ() + world.random.nextDouble() * (1.0D - width) + width / 2.0D;
+			while(!stack.isEmpty()) {
+				ItemEntity item = new ItemEntity(world, x, y, z, stack.split(world.random.nextInt(21) + 10));
+				item.setVelocity(world.random.nextGaussian() * 0.05F, world.random.nextGaussian() * 0.05F + 0.2F, world.random.nextGaussian() * 0.05F);
+				item.setThrower(thrower);
+				world.spawnEntity(item);
+			}
+		}
+	}
+
+	private static boolean canReplace(ServerWorld world, BlockPos pos) {
+		BlockState state = world.getBlockState(pos);
+		return state.getMaterial().isReplaceable() && !state.hasBlockEntity();
+	}
+
+	private static boolean place(ServerWorld world, BlockPos pos, boolean isDouble, Inventory inventory) {
+		BlockState state = Blocks.CHEST.getDefaultState().with(ChestBlock.FACING, Direction.NORTH);
+		if(isDouble) {
+			world.setBlockState(pos, state.with(ChestBlock.CHEST_TYPE, ChestType.LEFT));
+			world.setBlockState(pos.east(), state.with(ChestBlock.CHEST_TYPE, ChestType.RIGHT));
+		}
+		else {
+			world.setBlockState(pos, state);
+		}
+
+		BlockEntity first = world.getBlockEntity(pos);
+		BlockEntity second = isDouble ? world.getBlockEntity(pos.east()) : null;
+		if(!(first instanceof ChestBlockEntity firstChest)) return false;
+
+		int slot = 0;
+		for(int i = 0; i < inventory.size(); i++) {
+			ItemStack stack = inventory.removeStack(i);
+			if(stack.isEmpty()) continue;
+			if(slot < CHEST_SIZE) {
+				firstChest.setStack(slot++, stack);
+			}
+			else if(second instanceof ChestBlockEntity secondChest) {
+				secondChest.setStack(slot++ - CHEST_SIZE, stack);
+			}
+		}
+		return true;
+	}
+}
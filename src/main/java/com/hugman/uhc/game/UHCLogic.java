@@ -38,4 +38,11 @@ public class UHCLogic {
 	public long getShrinkingTime() {
 		return (long) ((getStartMapSize() - getEndMapSize()) / config.mapConfig().shrinkingSpeed() * 10L);
 	}
+
+	/**
+	 * @return how long every chapter lasts in total, from the first cages to the end of the deathmatch, not counting the time spent teleporting teams
+	 */
+	public long getGameLength() {
+		return 2 * getInCagesTime() + 2 * getInvulnerabilityTime() + getWarmupTime() + getShrinkingTime() + getDeathmatchTime();
+	}
 }
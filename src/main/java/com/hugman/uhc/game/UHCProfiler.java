@@ -0,0 +1,108 @@
+package com.hugman.uhc.game;
+
+import com.hugman.uhc.util.LatencyHistogram;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.plasmid.game.GameSpace;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Call counts and durations of the listeners of an active game, grouped in named sections.
+ * Profilers are kept for as long as their game is active, so that they can be looked at with a command.
+ */
+public class UHCProfiler {
+	private static final Map<GameSpace, UHCProfiler> PROFILERS = new ConcurrentHashMap<>();
+
+	private final Map<String, LatencyHistogram> sections = new LinkedHashMap<>();
+	private String chapter = "cages";
+	@Nullable
+	private UHCTimeline timeline;
+
+	public static UHCProfiler open(GameSpace gameSpace) {
+		UHCProfiler profiler = new UHCProfiler();
+		PROFILERS.put(gameSpace, profiler);
+		return profiler;
+	}
+
+	public static void close(GameSpace gameSpace) {
+		PROFILERS.remove(gameSpace);
+	}
+
+	@Nullable
+	public static UHCProfiler get(GameSpace gameSpace) {
+		return PROFILERS.get(gameSpace);
+	}
+
+	/**
+	 * Gets the histogram of a section, creating it if needed. Callers are expected to keep it rather than looking it up on every call.
+	 */
+	public LatencyHistogram section(String name) {
+		return this.sections.computeIfAbsent(name, s -> new LatencyHistogram());
+	}
+
+	/**
+	 * Gets a timer recording into the histogram of a section, to time a listener with.
+	 */
+	public Timer timer(String name) {
+		return new Timer(this.section(name));
+	}
+
+	/**
+	 * @return the name of the last timeline event of the game
+	 */
+	public String getChapter() {
+		return this.chapter;
+	}
+
+	public void setChapter(String chapter) {
+		this.chapter = chapter;
+	}
+
+	/**
+	 * Makes the next event of the given timeline show in the report.
+	 */
+	public void watch(UHCTimeline timeline) {
+		this.timeline = timeline;
+	}
+
+	/**
+	 * @return the next event of the watched timeline, if there is any
+	 */
+	@Nullable
+	public UHCTimeline.Event getNextEvent() {
+		return this.timeline == null ? null : this.timeline.next();
+	}
+
+	public void reset() {
+		this.sections.values().forEach(LatencyHistogram::reset);
+	}
+
+	/**
+	 * @return a line for each of the sections that took the most time in total, up to the given limit
+	 */
+	public List<String> report(int limit) {
+		return this.sections.entrySet().stream()
+				.filter(entry -> entry.getValue().getCount() > 0)
+				.sorted(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().getTotal()).reversed())
+				.limit(limit)
+				.map(entry -> entry.getKey() + ": " + entry.getValue().summarize())
+				.toList();
+	}
+
+	/**
+	 * Records how long the code between {@link #start()} and {@link #stop(long)} takes. Stop it in a {@code finally} block so that calls that throw are recorded too.
+	 */
+	public record Timer(LatencyHistogram histogram) {
+		public long start() {
+			return System.nanoTime();
+		}
+
+		public void stop(long start) {
+			this.histogram.record(System.nanoTime() - start);
+		}
+	}
+}
@@ -1,31 +1,102 @@
 package com.hugman.uhc.game;
 
 import com.hugman.uhc.util.TickUtil;
-import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
-import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.LiteralText;
+import net.minecraft.text.Text;
 import net.minecraft.text.TranslatableText;
 import net.minecraft.util.Formatting;
+import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.plasmid.game.GameSpace;
 import xyz.nucleoid.plasmid.game.common.GlobalWidgets;
 import xyz.nucleoid.plasmid.game.common.widget.SidebarWidget;
 
-public record UHCSideBar(SidebarWidget sidebarWidget) {
-	public static UHCSideBar create(GlobalWidgets widgets, GameSpace gameSpace) {
-		return new UHCSideBar(widgets.addSidebar(gameSpace.getMetadata().sourceConfig().name().copy().formatted(Formatting.BOLD, Formatting.GOLD)));
+import java.util.Objects;
+
+/**
+ * The sidebar of an active game.
+ * <p>
+ * Every line is kept once built and only rebuilt when its value changes. The sidebar is then only sent again when a line changed, at most once every {@code interval} ticks.
+ */
+public class UHCSideBar {
+	private static final Text EMPTY = new LiteralText("");
+	private static final Text RANKING_TITLE = new TranslatableText("text.uhc.kills").formatted(Formatting.WHITE);
+
+	private final SidebarWidget sidebarWidget;
+	private final int interval;
+	private final UHCTimeLabels timeLabels;
+
+	private int playersAlive = -1;
+	private int worldSize = -1;
+	private long seconds = -1;
+	private Text playersLine;
+	private Text worldLine;
+	private Text timeLine;
+	private final String[] rankingNames = new String[UHCCombatTracker.RANKING_SIZE];
+	private final int[] rankingKills = new int[UHCCombatTracker.RANKING_SIZE];
+	private final Text[] rankingLines = new Text[UHCCombatTracker.RANKING_SIZE];
+	private boolean dirty = true;
+	private long nextUpdateTick = Long.MIN_VALUE;
+
+	UHCSideBar(SidebarWidget sidebarWidget, int interval, UHCTimeLabels timeLabels) {
+		this.sidebarWidget = sidebarWidget;
+		this.interval = interval;
+		this.timeLabels = timeLabels;
+	}
+
+	public static UHCSideBar create(GlobalWidgets widgets, GameSpace gameSpace, int interval, UHCTimeLabels timeLabels) {
+		return new UHCSideBar(widgets.addSidebar(gameSpace.getMetadata().sourceConfig().name().copy().formatted(Formatting.BOLD, Formatting.GOLD)), interval, timeLabels);
 	}
 
-	public void update(long ticks, int worldSize, Object2ObjectMap<ServerPlayerEntity, UHCParticipant> participantMap) {
-		sidebarWidget.set(content -> {
-			long count = participantMap.values().stream().filter(participant -> !participant.isEliminated()).count();
-
-			content.add(new LiteralText(""));
-			content.add(new TranslatableText("text.uhc.players", new LiteralText(String.valueOf(count)).formatted(Formatting.GREEN)).formatted(Formatting.WHITE));
-			//TODO: write kills
-			content.add(new LiteralText(""));
-			content.add(new TranslatableText("text.uhc.world", new LiteralText(worldSize + "x" + worldSize).formatted(Formatting.GREEN)).formatted(Formatting.WHITE));
-			content.add(new LiteralText(""));
-			content.add(new TranslatableText("text.uhc.time", new LiteralText(TickUtil.format(ticks).asString()).formatted(Formatting.GREEN)).formatted(Formatting.WHITE));
-		});
+	public void setPlayersAlive(int playersAlive) {
+		if(this.playersAlive != playersAlive) {
+			this.playersAlive = playersAlive;
+			this.playersLine = new TranslatableText("text.uhc.players", new LiteralText(String.valueOf(playersAlive)).formatted(Formatting.GREEN)).formatted(Formatting.WHITE);
+			this.dirty = true;
+		}
+	}
+
+	public void setRanked(int rank, @Nullable String name, int kills) {
+		if(!Objects.equals(this.rankingNames[rank], name) || this.rankingKills[rank] != kills) {
+			this.rankingNames[rank] = name;
+			this.rankingKills[rank] = kills;
+			this.rankingLines[rank] = name == null ? null : new TranslatableText("text.uhc.kills.entry", rank + 1, name, new LiteralText(String.valueOf(kills)).formatted(Formatting.GREEN)).formatted(Formatting.WHITE);
+			this.dirty = true;
+		}
+	}
+
+	public void update(long worldTime, long ticks, int worldSize) {
+		if(worldTime < this.nextUpdateTick) return;
+		this.nextUpdateTick = worldTime + this.interval;
+
+		if(this.worldSize != worldSize) {
+			this.worldSize = worldSize;
+			this.worldLine = new TranslatableText("text.uhc.world", new LiteralText(worldSize + "x" + worldSize).formatted(Formatting.GREEN)).formatted(Formatting.WHITE);
+			this.dirty = true;
+		}
+		long seconds = TickUtil.asSeconds(ticks);
+		if(this.seconds != seconds) {
+			this.seconds = seconds;
+			this.timeLine = this.timeLabels.getTimeLine(seconds);
+			this.dirty = true;
+		}
+
+		if(this.dirty) {
+			this.dirty = false;
+			this.sidebarWidget.set(content -> {
+				content.add(EMPTY);
+				content.add(this.playersLine);
+				if(this.rankingLines[0] != null) {
+					content.add(EMPTY);
+					content.add(RANKING_TITLE);
+					for(Text line : this.rankingLines) {
+						if(line != null) content.add(line);
+					}
+				}
+				content.add(EMPTY);
+				content.add(this.worldLine);
+				content.add(EMPTY);
+				content.add(this.timeLine);
+			});
+		}
 	}
 }
@@ -1,5 +1,9 @@
 package com.hugman.uhc.game;
 
+import com.hugman.uhc.util.BulkBlockWriter;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -14,12 +18,21 @@ import xyz.nucleoid.map_templates.BlockBounds;
 import xyz.nucleoid.plasmid.game.common.team.GameTeam;
 import xyz.nucleoid.plasmid.util.ColoredBlocks;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class UHCSpawner {
+	private static final ChunkTicketType<ChunkPos> CAGE_TICKET = ChunkTicketType.create("uhc_cage", Comparator.comparingLong(ChunkPos::toLong));
+	private static final int CAGE_WIDTH = 3;
+	private static final int CAGE_HEIGHT = 4;
+
 	private final ServerWorld world;
 	private final Map<GameTeam, BlockBounds> cages = new HashMap<>();
+	private final Map<GameTeam, BlockPos> cageSites = new HashMap<>();
+	private final LongSet ticketedChunks = new LongOpenHashSet();
 
 	public UHCSpawner(ServerWorld world) {
 		this.world = world;
@@ -47,12 +60,102 @@ public class UHCSpawner {
 		}
 	}
 
-	public void summonCage(GameTeam team, int x, int z) {
-		BlockPos pos = new BlockPos(x, 200, z);
-		if(this.world.isSkyVisible(pos)) {
-			pos = new BlockPos(x, 200, z);
+	/**
+	 * Remembers where the cage of a team will be, and starts loading the chunks around it in the background.
+	 * If the cage of the team was prepared somewhere else, that place is released.
+	 */
+	public void prepareCage(GameTeam team, int x, int z) {
+		BlockPos origin = new BlockPos(x, 200, z);
+		if(origin.equals(this.cageSites.get(team))) return;
+		this.releaseCage(team);
+		this.cageSites.put(team, origin);
+
+		int minChunkX = (x - CAGE_WIDTH) >> 4;
+		int maxChunkX = (x + CAGE_WIDTH) >> 4;
+		int minChunkZ = (z - CAGE_WIDTH) >> 4;
+		int maxChunkZ = (z + CAGE_WIDTH) >> 4;
+		for(int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+			for(int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+				if(this.ticketedChunks.add(ChunkPos.toLong(chunkX, chunkZ))) {
+					ChunkPos pos = new ChunkPos(chunkX, chunkZ);
+					this.world.getChunkManager().addTicket(CAGE_TICKET, pos, 1, pos);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Releases the prepared cages of every team that is not in the given ones.
+	 */
+	public void retainCages(Collection<GameTeam> teams) {
+		for(GameTeam team : List.copyOf(this.cageSites.keySet())) {
+			if(!teams.contains(team)) {
+				this.releaseCage(team);
+			}
+		}
+	}
+
+	/**
+	 * Forgets the prepared cage of a team, and lets the chunks that no other prepared cage covers unload again.
+	 */
+	private void releaseCage(GameTeam team) {
+		BlockPos origin = this.cageSites.remove(team);
+		if(origin == null) return;
+		for(int chunkX = (origin.getX() - CAGE_WIDTH) >> 4; chunkX <= (origin.getX() + CAGE_WIDTH) >> 4; chunkX++) {
+			for(int chunkZ = (origin.getZ() - CAGE_WIDTH) >> 4; chunkZ <= (origin.getZ() + CAGE_WIDTH) >> 4; chunkZ++) {
+				if(!this.isCovered(chunkX, chunkZ) && this.ticketedChunks.remove(ChunkPos.toLong(chunkX, chunkZ))) {
+					ChunkPos pos = new ChunkPos(chunkX, chunkZ);
+					this.world.getChunkManager().removeTicket(CAGE_TICKET, pos, 1, pos);
+				}
+			}
+		}
+	}
+
+	private boolean isCovered(int chunkX, int chunkZ) {
+		for(BlockPos origin : this.cageSites.values()) {
+			if(chunkX >= (origin.getX() - CAGE_WIDTH) >> 4 && chunkX <= (origin.getX() + CAGE_WIDTH) >> 4 && chunkZ >= (origin.getZ() - CAGE_WIDTH) >> 4 && chunkZ <= (origin.getZ() + CAGE_WIDTH) >> 4) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether every chunk covered by the prepared cage of a team is loaded.
+	 * The ticket level applies long before the chunks are generated, so only chunks that reached the full status count.
+	 */
+	public boolean isCageReady(GameTeam team) {
+		BlockPos origin = this.cageSites.get(team);
+		if(origin == null) return true;
+		for(int chunkX = (origin.getX() - CAGE_WIDTH) >> 4; chunkX <= (origin.getX() + CAGE_WIDTH) >> 4; chunkX++) {
+			for(int chunkZ = (origin.getZ() - CAGE_WIDTH) >> 4; chunkZ <= (origin.getZ() + CAGE_WIDTH) >> 4; chunkZ++) {
+				if(this.world.getChunkManager().getWorldChunk(chunkX, chunkZ, false) == null) return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Builds the cage of a team where it was prepared.
+	 */
+	public void summonCage(GameTeam team) {
+		BlockPos origin = this.cageSites.get(team);
+		if(origin != null) {
+			this.addCageAt(team, origin, Blocks.BARRIER.getDefaultState(), CAGE_WIDTH, CAGE_HEIGHT);
+		}
+	}
+
+	/**
+	 * Lets the chunks of the prepared cages unload again.
+	 */
+	public void releaseCages() {
+		LongIterator iterator = this.ticketedChunks.iterator();
+		while(iterator.hasNext()) {
+			ChunkPos pos = new ChunkPos(iterator.nextLong());
+			this.world.getChunkManager().removeTicket(CAGE_TICKET, pos, 1, pos);
 		}
-		this.addCageAt(team, pos, Blocks.BARRIER.getDefaultState(), 3, 4);
+		this.ticketedChunks.clear();
+		this.cageSites.clear();
 	}
 
 	public void addCageAt(GameTeam team, BlockPos origin, BlockState sides, int width, int height) {
@@ -63,15 +166,19 @@ public class UHCSpawner {
 		BlockBounds cageFloor = BlockBounds.of(origin.down().north(width - 1).east(width - 1), origin.down().south(width - 1).west(width - 1));
 		BlockBounds cageAir = BlockBounds.of(origin.north(width - 1).east(width - 1), origin.up(height - 1).south(width - 1).west(width - 1));
 
-		fullCage.forEach(pos -> world.setBlockState(pos, sides));
-		cageFloor.forEach(pos -> world.setBlockState(pos, floor));
-		cageAir.forEach(pos -> world.setBlockState(pos, Blocks.AIR.getDefaultState()));
+		BulkBlockWriter writer = new BulkBlockWriter(world);
+		writer.fill(fullCage, sides);
+		writer.fill(cageFloor, floor);
+		writer.fill(cageAir, Blocks.AIR.getDefaultState());
+		writer.flush();
 
 		this.cages.put(team, fullCage);
 	}
 
 	public void clearCages() {
-		this.cages.values().forEach(bounds -> bounds.forEach(pos -> this.world.setBlockState(pos, Blocks.AIR.getDefaultState())));
+		BulkBlockWriter writer = new BulkBlockWriter(this.world);
+		this.cages.values().forEach(bounds -> writer.fill(bounds, Blocks.AIR.getDefaultState()));
+		writer.flush();
 	}
 
 	public BlockPos getSurfaceBlock(int x, int z) {
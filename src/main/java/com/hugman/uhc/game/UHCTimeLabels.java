@@ -0,0 +1,65 @@
+package com.hugman.uhc.game;
+
+import com.hugman.uhc.util.TickUtil;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.text.LiteralText;
+import net.minecraft.text.Text;
+import net.minecraft.text.TranslatableText;
+import net.minecraft.util.Formatting;
+
+/**
+ * Time labels for every second of the chapters of a game, built once when the game starts so that the bar and the sidebar do not build texts every second.
+ * The texts are shared and must not be modified. Values past the end of the chapters, which only happen once teleports have delayed the game, are built on the fly.
+ */
+public final class UHCTimeLabels {
+	private final Text[] labels;
+	private final Text[] timeLines;
+	private final Long2ObjectMap<Text> announcements = new Long2ObjectOpenHashMap<>();
+
+	/**
+	 * @param ticks how long the chapters of the game last in total, see {@link UHCLogic#getGameLength()}
+	 */
+	public UHCTimeLabels(long ticks) {
+		int seconds = (int) TickUtil.asSeconds(ticks);
+		this.labels = new Text[seconds + 1];
+		this.timeLines = new Text[seconds + 1];
+		for(int i = 0; i <= seconds; i++) {
+			this.labels[i] = TickUtil.format(i * 20L);
+			this.timeLines[i] = buildTimeLine(i);
+		}
+		for(long announced : UHCBar.ANNOUNCED_SECONDS) {
+			this.announcements.put(announced, buildAnnouncement(announced));
+		}
+	}
+
+	/**
+	 * @return the given amount of seconds, formatted as {@link TickUtil#format(long)} does
+	 */
+	public Text getLabel(long seconds) {
+		return seconds >= 0 && seconds < this.labels.length ? this.labels[(int) seconds] : TickUtil.format(seconds * 20);
+	}
+
+	/**
+	 * @return the time line of the sidebar for the given amount of seconds
+	 */
+	public Text getTimeLine(long seconds) {
+		return seconds >= 0 && seconds < this.timeLines.length ? this.timeLines[(int) seconds] : buildTimeLine(seconds);
+	}
+
+	/**
+	 * @return the given amount of seconds written out in red, for countdown messages
+	 */
+	public Text getAnnouncement(long seconds) {
+		Text text = this.announcements.get(seconds);
+		return text != null ? text : buildAnnouncement(seconds);
+	}
+
+	private static Text buildTimeLine(long seconds) {
+		return new TranslatableText("text.uhc.time", new LiteralText(TickUtil.format(seconds * 20).asString()).formatted(Formatting.GREEN)).formatted(Formatting.WHITE);
+	}
+
+	private static Text buildAnnouncement(long seconds) {
+		return TickUtil.formatPretty(seconds * 20).formatted(Formatting.RED);
+	}
+}
@@ -0,0 +1,82 @@
+package com.hugman.uhc.game;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * The schedule of a game, as a queue of events ordered by the tick they happen at.
+ * <p>
+ * Every event whose tick has been reached is run, in order, so that an event is never missed when ticks are skipped.
+ * Events scheduled for the same tick run in the order they were scheduled in.
+ */
+public class UHCTimeline {
+	private final PriorityQueue<Event> events = new PriorityQueue<>(Comparator.comparingLong(Event::tick).thenComparingLong(Event::order));
+	private final Consumer<Event> listener;
+	private long order = 0;
+	private boolean paused = false;
+
+	/**
+	 * @param listener called right before each event is run
+	 */
+	public UHCTimeline(Consumer<Event> listener) {
+		this.listener = listener;
+	}
+
+	public void schedule(long tick, String name, Runnable action) {
+		this.events.add(new Event(tick, this.order++, name, action));
+	}
+
+	/**
+	 * Runs every event that should have happened by the given time, unless the timeline is paused.
+	 */
+	public void tick(long time) {
+		while(!this.paused && !this.events.isEmpty() && this.events.peek().tick() <= time) {
+			Event event = this.events.poll();
+			this.listener.accept(event);
+			event.action().run();
+		}
+	}
+
+	/**
+	 * Holds every event back until the timeline is resumed. Events that are due in the meantime are run on the next tick after that.
+	 */
+	public void pause() {
+		this.paused = true;
+	}
+
+	public void resume() {
+		this.paused = false;
+	}
+
+	/**
+	 * Delays every event that has not happened yet.
+	 */
+	public void shift(long delay) {
+		if(delay == 0) return;
+		List<Event> events = new ArrayList<>(this.events);
+		this.events.clear();
+		for(Event event : events) {
+			this.events.add(new Event(event.tick() + delay, event.order(), event.name(), event.action()));
+		}
+	}
+
+	public void clear() {
+		this.events.clear();
+	}
+
+	/**
+	 * @return the next event to happen, if there is any
+	 */
+	@Nullable
+	public Event next() {
+		return this.events.peek();
+	}
+
+	public record Event(long tick, long order, String name, Runnable action) {
+	}
+}
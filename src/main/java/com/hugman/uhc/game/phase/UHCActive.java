@@ -3,11 +3,22 @@ package com.hugman.uhc.game.phase;
 import com.hugman.uhc.UHC;
 import com.hugman.uhc.config.UHCConfig;
 import com.hugman.uhc.game.UHCBar;
+import com.hugman.uhc.game.UHCBorderSweeper;
+import com.hugman.uhc.game.UHCBreakScheduler;
+import com.hugman.uhc.game.UHCBroadcaster;
+import com.hugman.uhc.game.UHCCageTeleporter;
+import com.hugman.uhc.game.UHCCombatTracker;
+import com.hugman.uhc.game.UHCDropAggregator;
+import com.hugman.uhc.game.UHCGraves;
 import com.hugman.uhc.game.UHCLogic;
 import com.hugman.uhc.game.UHCParticipant;
+import com.hugman.uhc.game.UHCProfiler;
 import com.hugman.uhc.game.UHCSideBar;
 import com.hugman.uhc.game.UHCSpawner;
+import com.hugman.uhc.game.UHCTimeLabels;
+import com.hugman.uhc.game.UHCTimeline;
 import com.hugman.uhc.map.UHCMap;
+import com.hugman.uhc.module.ModulePlan;
 import com.hugman.uhc.module.piece.BlockLootModulePiece;
 import com.hugman.uhc.module.piece.EntityLootModulePiece;
 import com.hugman.uhc.module.piece.ModulePieceType;
@@ -24,6 +35,7 @@ import net.minecraft.entity.boss.BossBar;
 import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
+import net.minecraft.loot.context.LootContext;
 import net.minecraft.network.packet.s2c.play.WorldBorderInitializeS2CPacket;
 import net.minecraft.network.packet.s2c.play.WorldBorderInterpolateSizeS2CPacket;
 import net.minecraft.scoreboard.AbstractTeam;
@@ -39,7 +51,6 @@ import net.minecraft.text.TranslatableText;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.DyeColor;
 import net.minecraft.util.Formatting;
-import net.minecraft.util.ItemScatterer;
 import net.minecraft.util.TypedActionResult;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
@@ -75,9 +86,17 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class UHCActive {
+	private static final long CAGE_PREPARATION_TIME = 600;
+	/**
+	 * The timeline events that start a chapter, as opposed to the ones only preparing something within a chapter.
+	 */
+	private static final Set<String> CHAPTERS = Set.of("invulnerability", "warmup", "finale_cages", "finale_invulnerability", "reducing", "deathmatch");
+
 	private final GameSpace gameSpace;
 	private final ServerWorld world;
 	private final GameActivity activity;
@@ -90,12 +109,25 @@ public class UHCActive {
 
 	private final UHCLogic logic;
 	private final UHCSpawner spawnLogic;
+	private final UHCBroadcaster broadcaster;
 	private final UHCBar bar;
 	private final UHCSideBar sideBar;
+	private final UHCBorderSweeper borderSweeper;
+	private final UHCDropAggregator dropAggregator;
+	private final UHCBreakScheduler breakScheduler;
+	private final UHCCageTeleporter cageTeleporter;
+	private final UHCCombatTracker combatTracker;
+	private final UHCTimeline timeline = new UHCTimeline(event -> {
+		if(CHAPTERS.contains(event.name())) this.profiler.setChapter(event.name());
+	});
+	private final UHCProfiler profiler;
+	private final UHCProfiler.Timer barProfile;
+	private final UHCProfiler.Timer sideBarProfile;
 
 	private long gameStartTick;
 	private long startInvulnerableTick;
 	private long startWarmupTick;
+	private long finaleCagesPreparationTick;
 	private long finaleCagesTick;
 	private long finaleInvulnerabilityTick;
 	private long reducingTick;
@@ -103,7 +135,9 @@ public class UHCActive {
 	private long gameEndTick;
 	private long gameCloseTick;
 
+	private int participantsAlive;
 	private boolean invulnerable;
+	private boolean pvp;
 	private boolean isFinished = false;
 
 	private UHCActive(GameActivity activity, GameSpace gameSpace, ServerWorld world, UHCConfig config, UHCMap map, GlobalWidgets widgets) {
@@ -113,13 +147,29 @@ public class UHCActive {
 		this.config = config;
 		this.map = map;
 
+		this.profiler = UHCProfiler.open(gameSpace);
+		this.profiler.watch(this.timeline);
+		this.barProfile = this.profiler.timer("bar");
+		this.sideBarProfile = this.profiler.timer("sidebar");
+
 		fillTeams();
 		TeamChat.addTo(activity, teamManager);
 
 		this.logic = new UHCLogic(config, this.participants.size());
 		this.spawnLogic = new UHCSpawner(this.world);
-		this.bar = UHCBar.create(widgets, this.gameSpace);
-		this.sideBar = UHCSideBar.create(widgets, gameSpace);
+		this.broadcaster = new UHCBroadcaster(this.gameSpace);
+		UHCTimeLabels timeLabels = new UHCTimeLabels(this.logic.getGameLength());
+		this.bar = UHCBar.create(widgets, this.gameSpace, this.broadcaster, timeLabels);
+		this.sideBar = UHCSideBar.create(widgets, gameSpace, config.performanceConfig().sidebarInterval(), timeLabels);
+		this.participantsAlive = this.participants.size();
+		this.sideBar.setPlayersAlive(this.participantsAlive);
+		this.combatTracker = new UHCCombatTracker(this.participants);
+		this.borderSweeper = new UHCBorderSweeper(this.world);
+		this.dropAggregator = new UHCDropAggregator();
+		this.breakScheduler = new UHCBreakScheduler(this.world, config.performanceConfig().breakBudget(), this.dropAggregator);
+		this.cageTeleporter = new UHCCageTeleporter(this.spawnLogic, this.teamManager, config.performanceConfig().teleportBudget());
+
+		this.prepareCages();
 	}
 
 	private void fillTeams() {
@@ -170,20 +220,120 @@ public class UHCActive {
 			activity.allow(GameRuleType.FALL_DAMAGE);
 			activity.allow(GameRuleType.HUNGER);
 
-			activity.listen(GameActivityEvents.ENABLE, active::enable);
+			UHCProfiler profiler = active.profiler;
+			UHCProfiler.Timer enable = profiler.timer("enable");
+			activity.listen(GameActivityEvents.ENABLE, () -> {
+				long start = enable.start();
+				try {
+					active.enable();
+				}
+				finally {
+					enable.stop(start);
+				}
+			});
+			activity.listen(GameActivityEvents.DESTROY, active::destroy);
 
-			activity.listen(GamePlayerEvents.OFFER, active::offerPlayer);
-			activity.listen(GamePlayerEvents.LEAVE, active::playerLeave);
+			UHCProfiler.Timer offer = profiler.timer("offer");
+			activity.listen(GamePlayerEvents.OFFER, playerOffer -> {
+				long start = offer.start();
+				try {
+					return active.offerPlayer(playerOffer);
+				}
+				finally {
+					offer.stop(start);
+				}
+			});
+			UHCProfiler.Timer leave = profiler.timer("leave");
+			activity.listen(GamePlayerEvents.LEAVE, player -> {
+				long start = leave.start();
+				try {
+					active.playerLeave(player);
+				}
+				finally {
+					leave.stop(start);
+				}
+			});
 
-			activity.listen(GameActivityEvents.TICK, active::tick);
+			UHCProfiler.Timer tick = profiler.timer("tick");
+			activity.listen(GameActivityEvents.TICK, () -> {
+				long start = tick.start();
+				try {
+					active.tick();
+				}
+				finally {
+					tick.stop(start);
+				}
+			});
 
-			activity.listen(PlayerDamageEvent.EVENT, active::onPlayerDamage);
-			activity.listen(PlayerDeathEvent.EVENT, active::onPlayerDeath);
+			UHCProfiler.Timer playerDamage = profiler.timer("player_damage");
+			activity.listen(PlayerDamageEvent.EVENT, (player, source, amount) -> {
+				long start = playerDamage.start();
+				try {
+					return active.onPlayerDamage(player, source, amount);
+				}
+				finally {
+					playerDamage.stop(start);
+				}
+			});
+			UHCProfiler.Timer playerDeath = profiler.timer("player_death");
+			activity.listen(PlayerDeathEvent.EVENT, (player, source) -> {
+				long start = playerDeath.start();
+				try {
+					return active.onPlayerDeath(player, source);
+				}
+				finally {
+					playerDeath.stop(start);
+				}
+			});
 
-			activity.listen(EntityDropItemsEvent.EVENT, active::onMobLoot);
-			activity.listen(BlockBreakEvent.EVENT, active::onBlockBroken);
-			activity.listen(BlockDropItemsEvent.EVENT, active::onBlockDrop);
-			activity.listen(ExplosionDetonatedEvent.EVENT, active::onExplosion);
+			ModulePlan plan = config.plan();
+			plan.resolve(world.getServer());
+			if(plan.has(ModulePieceType.ENTITY_LOOT)) {
+				UHCProfiler.Timer mobLoot = profiler.timer("mob_loot");
+				activity.listen(EntityDropItemsEvent.EVENT, (livingEntity, stacks) -> {
+					long start = mobLoot.start();
+					try {
+						return active.onMobLoot(livingEntity, stacks);
+					}
+					finally {
+						mobLoot.stop(start);
+					}
+				});
+			}
+			if(plan.has(ModulePieceType.TRAVERSAL_BREAK)) {
+				UHCProfiler.Timer blockBroken = profiler.timer("block_broken");
+				activity.listen(BlockBreakEvent.EVENT, (player, blockWorld, pos) -> {
+					long start = blockBroken.start();
+					try {
+						return active.onBlockBroken(player, blockWorld, pos);
+					}
+					finally {
+						blockBroken.stop(start);
+					}
+				});
+				UHCProfiler.Timer explosion = profiler.timer("explosion");
+				activity.listen(ExplosionDetonatedEvent.EVENT, (detonated, particles) -> {
+					long start = explosion.start();
+					try {
+						active.onExplosion(detonated, particles);
+					}
+					finally {
+						explosion.stop(start);
+					}
+				});
+			}
+			if(plan.has(ModulePieceType.BLOCK_LOOT) || plan.has(ModulePieceType.TRAVERSAL_BREAK)) {
+				UHCProfiler.Timer blockDrop = profiler.timer("block_drop");
+				activity.listen(BlockDropItemsEvent.EVENT, (entity, blockWorld, pos, state, stacks) -> {
+					long start = blockDrop.start();
+					try {
+						return active.onBlockDrop(entity, blockWorld, pos, state, stacks);
+					}
+					finally {
+						blockDrop.stop(start);
+					}
+				});
+			}
 		});
 	}
 
@@ -195,36 +345,68 @@ public class UHCActive {
 		world.getWorldBorder().setCenter(0, 0);
 		world.getWorldBorder().setSize(this.logic.getStartMapSize());
 		world.getWorldBorder().setDamagePerBlock(0.5);
-		this.gameSpace.getPlayers().forEach(player -> player.networkHandler.sendPacket(new WorldBorderInitializeS2CPacket(world.getWorldBorder())));
+		this.broadcaster.broadcast(new WorldBorderInitializeS2CPacket(world.getWorldBorder()));
 
 		this.gameStartTick = world.getTime();
+
+		// Start - Cage chapter
+		this.tpToCages(player -> {
+			this.resetPlayer(player);
+			this.refreshPlayerAttributes(player);
+			player.changeGameMode(GameMode.ADVENTURE);
+		}, this::startCageChapter);
+	}
+
+	/**
+	 * Plans every chapter of the game, starting once every team is in its cage.
+	 */
+	private void startCageChapter() {
+		ServerWorld world = this.world;
+
 		this.startInvulnerableTick = world.getTime() + this.logic.getInCagesTime();
 		this.startWarmupTick = this.startInvulnerableTick + this.logic.getInvulnerabilityTime();
 		this.finaleCagesTick = this.startWarmupTick + this.logic.getWarmupTime();
+		this.finaleCagesPreparationTick = Math.max(this.finaleCagesTick - CAGE_PREPARATION_TIME, this.startInvulnerableTick + 1);
 		this.finaleInvulnerabilityTick = this.finaleCagesTick + this.logic.getInCagesTime();
 		this.reducingTick = this.finaleInvulnerabilityTick + this.logic.getInvulnerabilityTime();
 		this.deathMatchTick = this.reducingTick + this.logic.getShrinkingTime();
 		this.gameEndTick = this.deathMatchTick + this.logic.getDeathmatchTime();
 		this.gameCloseTick = this.gameEndTick + 600;
 
-		// Start - Cage chapter
-		this.participants.forEach((player, participant) -> {
-			if(!participant.isEliminated()) {
-				this.resetPlayer(player);
-				this.refreshPlayerAttributes(player);
-				player.changeGameMode(GameMode.ADVENTURE);
-			}
-		});
-		this.tpToCages();
+		UHCTimeline timeline = this.timeline;
+		timeline.schedule(this.startInvulnerableTick - Math.round(this.logic.getInCagesTime() * 0.8D), "module_list", this::sendModuleListToChat);
+		timeline.schedule(this.startInvulnerableTick, "invulnerability", this::startInvulnerabilityChapter);
+		timeline.schedule(this.startWarmupTick, "warmup", this::startWarmupChapter);
+		timeline.schedule(this.finaleCagesPreparationTick, "finale_cages_preparation", this::prepareCages);
+		timeline.schedule(this.finaleCagesTick, "finale_cages", this::startFinaleChapter);
+		timeline.schedule(this.finaleInvulnerabilityTick, "finale_invulnerability", this::startFinaleInvulnerabilityChapter);
+		timeline.schedule(this.reducingTick, "reducing", this::startReducingChapter);
+		timeline.schedule(this.deathMatchTick, "deathmatch", this::startDeathmatchChapter);
+		timeline.resume();
+
 		this.bar.set("text.uhc.dropping", this.logic.getInCagesTime(), this.startInvulnerableTick, BossBar.Color.PURPLE);
 	}
 
+	private void destroy(GameCloseReason reason) {
+		this.breakScheduler.close();
+		this.map.writeGenerationTimings(this.world);
+		this.broadcaster.report();
+		UHCProfiler.close(this.gameSpace);
+	}
+
 	private void tick() {
 		ServerWorld world = this.world;
 		long worldTime = world.getTime();
 
+		long start = this.barProfile.start();
 		this.bar.tick(world);
-		this.sideBar.update(worldTime - this.gameStartTick, (int) world.getWorldBorder().getSize(), this.participants);
+		this.barProfile.stop(start);
+		start = this.sideBarProfile.start();
+		this.sideBar.update(worldTime, worldTime - this.gameStartTick, (int) world.getWorldBorder().getSize());
+		this.sideBarProfile.stop(start);
+		this.borderSweeper.tick();
+		this.breakScheduler.tick();
+		this.cageTeleporter.tick();
 
 		// Game ends
 		if(isFinished) {
@@ -234,73 +416,71 @@ public class UHCActive {
 			return;
 		}
 
-		// Start - Cage chapter (@ 80%)
-		if(worldTime == this.startInvulnerableTick - (logic.getInCagesTime() * 0.8)) {
-			this.sendModuleListToChat();
-		}
-		// Start - Invulnerable chapter
-		else if(worldTime == this.startInvulnerableTick) {
-			this.dropCages();
-			this.sendInfo("text.uhc.dropped_players");
-			this.sendInfo("text.uhc.world_will_shrink", TickUtil.formatPretty(this.finaleCagesTick - worldTime));
+		this.timeline.tick(worldTime);
+	}
 
-			this.bar.set("🛡", "text.uhc.vulnerable", this.logic.getInvulnerabilityTime(), this.startWarmupTick, BossBar.Color.YELLOW);
-		}
+	// Start - Invulnerable chapter
+	private void startInvulnerabilityChapter() {
+		this.dropCages();
+		this.sendInfo("text.uhc.dropped_players");
+		this.sendInfo("text.uhc.world_will_shrink", TickUtil.formatPretty(this.finaleCagesTick - this.world.getTime()));
 
-		// Start - Warmup chapter
-		else if(worldTime == this.startWarmupTick) {
-			this.setInvulnerable(false);
-			this.sendWarning("🛡", "text.uhc.no_longer_immune");
+		this.bar.set("🛡", "text.uhc.vulnerable", this.logic.getInvulnerabilityTime(), this.startWarmupTick, BossBar.Color.YELLOW);
+	}
 
-			this.bar.set("text.uhc.tp", this.logic.getWarmupTime(), this.finaleCagesTick, BossBar.Color.BLUE);
-		}
+	// Start - Warmup chapter
+	private void startWarmupChapter() {
+		this.setInvulnerable(false);
+		this.sendWarning("🛡", "text.uhc.no_longer_immune");
 
-		// Finale - Cages chapter
-		else if(worldTime == this.finaleCagesTick) {
-			this.participants.forEach((player, participant) -> {
-				if(!participant.isEliminated()) {
-					this.clearPlayer(player);
-					this.refreshPlayerAttributes(player);
-					player.changeGameMode(GameMode.ADVENTURE);
-				}
-			});
-			this.tpToCages();
-			this.sendInfo("text.uhc.shrinking_when_pvp");
+		this.bar.set("text.uhc.tp", this.logic.getWarmupTime(), this.finaleCagesTick, BossBar.Color.BLUE);
+	}
 
-			this.bar.set("text.uhc.dropping", this.logic.getInCagesTime(), this.finaleInvulnerabilityTick, BossBar.Color.PURPLE);
-		}
+	// Finale - Cages chapter
+	private void startFinaleChapter() {
+		this.tpToCages(player -> {
+			this.clearPlayer(player);
+			this.refreshPlayerAttributes(player);
+			player.changeGameMode(GameMode.ADVENTURE);
+		}, this::startFinaleCageChapter);
+		this.sendInfo("text.uhc.shrinking_when_pvp");
+	}
 
-		// Finale - Invulnerability chapter
-		else if(worldTime == this.finaleInvulnerabilityTick) {
-			this.dropCages();
-			this.sendInfo("text.uhc.dropped_players");
+	// Finale - Invulnerability chapter
+	private void startFinaleInvulnerabilityChapter() {
+		this.dropCages();
+		this.sendInfo("text.uhc.dropped_players");
 
-			this.bar.set("🗡", "text.uhc.pvp", this.logic.getInvulnerabilityTime(), this.reducingTick, BossBar.Color.YELLOW);
-		}
+		this.bar.set("🗡", "text.uhc.pvp", this.logic.getInvulnerabilityTime(), this.reducingTick, BossBar.Color.YELLOW);
+	}
 
-		// Finale - Reducing chapter
-		else if(worldTime == this.reducingTick) {
-			this.setInvulnerable(false);
-			this.sendWarning("🛡", "text.uhc.no_longer_immune");
+	// Finale - Reducing chapter
+	private void startReducingChapter() {
+		ServerWorld world = this.world;
 
-			this.setPvp(true);
-			this.sendWarning("🗡", "text.uhc.pvp_enabled");
+		this.setInvulnerable(false);
+		this.sendWarning("🛡", "text.uhc.no_longer_immune");
 
-			world.getWorldBorder().interpolateSize(this.logic.getStartMapSize(), this.logic.getEndMapSize(), this.logic.getShrinkingTime() * 50L);
-			this.gameSpace.getPlayers().forEach(player -> player.networkHandler.sendPacket(new WorldBorderInterpolateSizeS2CPacket(world.getWorldBorder())));
-			this.sendWarning("text.uhc.shrinking_start");
+		this.setPvp(true);
+		this.sendWarning("🗡", "text.uhc.pvp_enabled");
 
-			this.bar.set("text.uhc.shrinking_finish", this.logic.getShrinkingTime(), this.deathMatchTick, BossBar.Color.RED);
-		}
+		world.getWorldBorder().interpolateSize(this.logic.getStartMapSize(), this.logic.getEndMapSize(), this.logic.getShrinkingTime() * 50L);
+		this.broadcaster.broadcast(new WorldBorderInterpolateSizeS2CPacket(world.getWorldBorder()));
+		this.sendWarning("text.uhc.shrinking_start");
+		this.borderSweeper.start();
 
-		// Finale - Deathmatch chapter
-		else if(worldTime == this.deathMatchTick) {
-			this.bar.setFull(new LiteralText("🗡").append(new TranslatableText("text.uhc.deathmatchTime")).append("🗡"));
-			world.getWorldBorder().setDamagePerBlock(2.5);
-			world.getWorldBorder().setSafeZone(0.125);
-			this.sendInfo("🗡", "text.uhc.last_one_wins");
-			this.checkForWinner();
-		}
+		this.bar.set("text.uhc.shrinking_finish", this.logic.getShrinkingTime(), this.deathMatchTick, BossBar.Color.RED);
+	}
+
+	// Finale - Deathmatch chapter
+	private void startDeathmatchChapter() {
+		ServerWorld world = this.world;
+
+		this.bar.setFull(new LiteralText("🗡").append(new TranslatableText("text.uhc.deathmatchTime")).append("🗡"));
+		world.getWorldBorder().setDamagePerBlock(2.5);
+		world.getWorldBorder().setSafeZone(0.125);
+		this.sendInfo("🗡", "text.uhc.last_one_wins");
+		this.checkForWinner();
 	}
 
 	// GENERAL PLAYER MANAGEMENT
@@ -320,9 +500,9 @@ public class UHCActive {
 	private void playerLeave(ServerPlayerEntity player) {
 		if(participants.containsKey(player)) {
 			if(!getParticipant(player).isEliminated()) {
-				PlayerSet players = this.gameSpace.getPlayers();
-				players.sendMessage(new LiteralText("\n☠ ").append(new TranslatableText("text.uhc.player_eliminated", player.getDisplayName())).append("\n").formatted(Formatting.DARK_RED));
-				players.playSound(SoundEvents.ENTITY_WITHER_SPAWN);
+				this.broadcaster.sendMessage(new LiteralText("\n☠ ").append(new TranslatableText("text.uhc.player_eliminated", player.getDisplayName())).append("\n").formatted(Formatting.DARK_RED));
+				this.broadcaster.playSound(SoundEvents.ENTITY_WITHER_SPAWN);
+				this.creditKill(player, null);
 				this.eliminateParticipant(player);
 			}
 		}
@@ -331,9 +511,9 @@ public class UHCActive {
 	private ActionResult onPlayerDeath(ServerPlayerEntity player, DamageSource source) {
 		if(participants.containsKey(player)) {
 			if(!getParticipant(player).isEliminated()) {
-				PlayerSet players = this.gameSpace.getPlayers();
-				players.sendMessage(new LiteralText("\n☠ ").append(source.getDeathMessage(player).copy()).append("!\n").formatted(Formatting.DARK_RED));
-				players.playSound(SoundEvents.ENTITY_WITHER_SPAWN);
+				this.broadcaster.sendMessage(new LiteralText("\n☠ ").append(source.getDeathMessage(player).copy()).append("!\n").formatted(Formatting.DARK_RED));
+				this.broadcaster.playSound(SoundEvents.ENTITY_WITHER_SPAWN);
+				this.creditKill(player, source.getAttacker());
 				this.eliminateParticipant(player);
 				return ActionResult.FAIL;
 			}
@@ -342,12 +522,24 @@ public class UHCActive {
 		return ActionResult.FAIL;
 	}
 
+	private void creditKill(ServerPlayerEntity player, @Nullable Entity directAttacker) {
+		if(this.combatTracker.creditKill(player, directAttacker, this.world.getTime()) != null) {
+			for(int rank = 0; rank < UHCCombatTracker.RANKING_SIZE; rank++) {
+				ServerPlayerEntity ranked = this.combatTracker.getRanked(rank);
+				this.sideBar.setRanked(rank, ranked == null ? null : ranked.getEntityName(), this.combatTracker.getRankedKills(rank));
+			}
+		}
+	}
+
 	private void eliminateParticipant(ServerPlayerEntity player) {
-		ItemScatterer.spawn(player.getWorld(), player.getBlockPos(), player.getInventory());
+		if(!this.config.graves() || !UHCGraves.dig(player.getWorld(), player.getBlockPos(), player.getInventory())) {
+			UHCGraves.scatter(player.getWorld(), player.getBlockPos(), player.getInventory(), player.getUuid());
+		}
 		player.changeGameMode(GameMode.SPECTATOR);
 		this.resetPlayer(player);
 		this.spawnLogic.spawnPlayerAtCenter(player);
 		getParticipant(player).eliminate();
+		this.sideBar.setPlayersAlive(--this.participantsAlive);
 		this.checkForWinner();
 	}
 
@@ -380,37 +572,42 @@ public class UHCActive {
 	}
 
 	private void checkForWinner() {
-		PlayerSet players = this.gameSpace.getPlayers();
-
 		// Remove empty teams
 		teamsAlive.removeIf(team -> teamManager.playersIn(team.key()).stream().allMatch(playerEntity -> getParticipant(playerEntity).isEliminated()));
+		this.spawnLogic.retainCages(teamsAlive);
+		// Spread the finale cages again over the teams that are left, early enough for the moved cages to load before the teleport
+		long time = this.world.getTime();
+		if(time >= this.finaleCagesPreparationTick && time < this.finaleCagesTick) {
+			this.prepareCages();
+		}
 		// Only one team is left, so they win
 		if(teamsAlive.size() <= 1) {
 			if(teamsAlive.size() <= 0) {
-				players.sendMessage(new LiteralText("\n").append(new TranslatableText("text.uhc.none_win").formatted(Formatting.BOLD, Formatting.GOLD)).append("\n"));
+				this.broadcaster.sendMessage(new LiteralText("\n").append(new TranslatableText("text.uhc.none_win").formatted(Formatting.BOLD, Formatting.GOLD)).append("\n"));
 				UHC.LOGGER.warn("There are no teams left! Consider reviewing the minimum amount of players needed to start a game, so that there are at least 2 teams in the game.");
 			}
 			else {
 				GameTeam lastTeam = teamsAlive.get(0);
 				PlayerSet teamMembers = teamManager.playersIn(lastTeam.key());
 				if(teamMembers.size() <= 0) {
-					players.sendMessage(new LiteralText("\n").append(new TranslatableText("text.uhc.none_win").formatted(Formatting.BOLD, Formatting.GOLD)).append("\n"));
+					this.broadcaster.sendMessage(new LiteralText("\n").append(new TranslatableText("text.uhc.none_win").formatted(Formatting.BOLD, Formatting.GOLD)).append("\n"));
 					UHC.LOGGER.warn("There is only one team left, but there are no players in it!");
 				}
 				else if(teamMembers.size() == 1) {
 					Optional<ServerPlayerEntity> participant = teamMembers.stream().findFirst();
-					participant.ifPresent(playerEntity -> players.sendMessage(new LiteralText("\n").append(new TranslatableText("text.uhc.player_win.solo", playerEntity.getName()).formatted(Formatting.BOLD, Formatting.GOLD)).append("\n")));
+					participant.ifPresent(playerEntity -> this.broadcaster.sendMessage(new LiteralText("\n").append(new TranslatableText("text.uhc.player_win.solo", playerEntity.getName()).formatted(Formatting.BOLD, Formatting.GOLD)).append("\n")));
 				}
 				else {
-					players.sendMessage(new LiteralText("\n").append(new TranslatableText("text.uhc.player_win.team", Texts.join(teamMembers.stream().toList(), PlayerEntity::getName)).formatted(Formatting.BOLD, Formatting.GOLD)).append("\n"));
+					this.broadcaster.sendMessage(new LiteralText("\n").append(new TranslatableText("text.uhc.player_win.team", Texts.join(teamMembers.stream().toList(), PlayerEntity::getName)).formatted(Formatting.BOLD, Formatting.GOLD)).append("\n"));
 				}
 				teamMembers.forEach(playerEntity -> playerEntity.changeGameMode(GameMode.ADVENTURE));
 				this.setInvulnerable(true);
 				this.setPvp(false);
 			}
-			players.playSound(SoundEvents.UI_TOAST_CHALLENGE_COMPLETE);
+			this.broadcaster.playSound(SoundEvents.UI_TOAST_CHALLENGE_COMPLETE);
 			this.gameCloseTick = this.world.getTime() + 200;
 			this.bar.close();
+			this.timeline.clear();
 			this.isFinished = true;
 			this.participants.clear();
 		}
@@ -424,6 +621,7 @@ public class UHCActive {
 	}
 
 	private void setPvp(boolean b) {
+		this.pvp = b;
 		this.activity.setRule(GameRuleType.PVP, b ? ActionResult.SUCCESS : ActionResult.FAIL);
 	}
 
@@ -434,10 +632,10 @@ public class UHCActive {
 		this.activity.setRule(GameRuleType.CRAFTING, b ? ActionResult.SUCCESS : ActionResult.FAIL);
 	}
 
-	private void tpToCages() {
-		this.setInvulnerable(true);
-		this.setInteractWithWorld(false);
-
+	/**
+	 * Spreads the cages of the teams that are alive on a ring. Cages that do not move keep their loaded chunks.
+	 */
+	private void prepareCages() {
 		int index = 0;
 		for(GameTeam team : teamsAlive) {
 			double theta = ((double) index++ / teamsAlive.size()) * 2 * Math.PI;
@@ -445,13 +643,49 @@ public class UHCActive {
 			int x = MathHelper.floor(Math.cos(theta) * (this.logic.getStartMapSize() / 2 - this.config.mapConfig().spawnOffset()));
 			int z = MathHelper.floor(Math.sin(theta) * (this.logic.getStartMapSize() / 2 - this.config.mapConfig().spawnOffset()));
 
-			this.spawnLogic.summonCage(team, x, z);
-			teamManager.playersIn(team.key()).forEach(player -> this.spawnLogic.putParticipantInCage(team, player));
+			this.spawnLogic.prepareCage(team, x, z);
 		}
 	}
 
+	/**
+	 * Starts teleporting every team into its cage, a few players each tick.
+	 *
+	 * @param preparePlayer called on every participant that is not eliminated, right before they get teleported
+	 * @param onCaged       called once every team is in its cage
+	 */
+	private void tpToCages(Consumer<ServerPlayerEntity> preparePlayer, Runnable onCaged) {
+		this.setInvulnerable(true);
+		this.setInteractWithWorld(false);
+
+		this.timeline.pause();
+		this.cageTeleporter.start(this.teamsAlive, player -> {
+			UHCParticipant participant = this.getParticipant(player);
+			if(participant != null && !participant.isEliminated()) {
+				preparePlayer.accept(player);
+			}
+		}, onCaged);
+		this.bar.setFull(new TranslatableText("text.uhc.teleporting"));
+	}
+
+	/**
+	 * Delays the rest of the game by the time it took to teleport every team for the finale.
+	 */
+	private void startFinaleCageChapter() {
+		long delay = this.world.getTime() - this.finaleCagesTick;
+		this.finaleInvulnerabilityTick += delay;
+		this.reducingTick += delay;
+		this.deathMatchTick += delay;
+		this.gameEndTick += delay;
+		this.gameCloseTick += delay;
+		this.timeline.shift(delay);
+		this.timeline.resume();
+
+		this.bar.set("text.uhc.dropping", this.logic.getInCagesTime(), this.finaleInvulnerabilityTick, BossBar.Color.PURPLE);
+	}
+
 	private void dropCages() {
 		this.spawnLogic.clearCages();
+		this.spawnLogic.releaseCages();
 		this.setInteractWithWorld(true);
 
 		this.participants.forEach((player, participant) -> {
@@ -466,7 +700,7 @@ public class UHCActive {
 
 	// MESSAGES
 	private void sendMessage(String symbol, String s, Formatting f, Object... args) {
-		this.gameSpace.getPlayers().sendMessage(new LiteralText(symbol).append(new TranslatableText(s, args)).formatted(f));
+		this.broadcaster.sendMessage(new LiteralText(symbol).append(new TranslatableText(s, args)).formatted(f));
 	}
 
 	public void sendInfo(String symbol, String s, Object... args) {
@@ -495,8 +729,8 @@ public class UHCActive {
 				text.append(new LiteralText("\n  - ").formatted(Formatting.WHITE)).append(Texts.bracketed(new TranslatableText(module.translation())).setStyle(style));
 			});
 			text.append("\n");
-			this.gameSpace.getPlayers().sendMessage(text);
-			this.gameSpace.getPlayers().playSound(SoundEvents.ENTITY_ITEM_PICKUP);
+			this.broadcaster.sendMessage(text);
+			this.broadcaster.playSound(SoundEvents.ENTITY_ITEM_PICKUP);
 		}
 	}
 
@@ -506,49 +740,77 @@ public class UHCActive {
 			return ActionResult.FAIL;
 		}
 		else {
+			if(this.pvp && damageSource.getAttacker() instanceof ServerPlayerEntity attacker && this.teamManager.teamFor(attacker) != this.teamManager.teamFor(entity)) {
+				this.combatTracker.recordHit(entity, attacker, this.world.getTime());
+			}
 			return ActionResult.SUCCESS;
 		}
 	}
 
 	private ActionResult onBlockBroken(ServerPlayerEntity playerEntity, ServerWorld world, BlockPos pos) {
 		for(TraversalBreakModulePiece piece : this.config.getModulesPieces(ModulePieceType.TRAVERSAL_BREAK)) {
-			piece.breakBlock(this.world, playerEntity, pos);
+			this.breakScheduler.schedule(piece, Collections.singleton(pos), playerEntity);
 		}
 		return ActionResult.SUCCESS;
 	}
 
 	private void onExplosion(Explosion explosion, boolean b) {
-		explosion.getAffectedBlocks().forEach(pos -> {
-			for(TraversalBreakModulePiece piece : this.config.getModulesPieces(ModulePieceType.TRAVERSAL_BREAK)) {
-				piece.breakBlock(this.world, explosion.getCausingEntity(), pos);
-			}
-		});
+		for(TraversalBreakModulePiece piece : this.config.getModulesPieces(ModulePieceType.TRAVERSAL_BREAK)) {
+			this.breakScheduler.schedule(piece, explosion.getAffectedBlocks(), explosion.getCausingEntity());
+		}
 	}
 
 	private TypedActionResult<List<ItemStack>> onMobLoot(LivingEntity livingEntity, List<ItemStack> itemStacks) {
+		ModulePlan.EntityLoot[] loots = this.config.plan().getEntityLoot(livingEntity.getType());
+		if(loots.length == 0) return TypedActionResult.pass(itemStacks);
+
 		boolean keepOld = true;
 		List<ItemStack> stacks = new ArrayList<>();
-		for(EntityLootModulePiece piece : this.config.getModulesPieces(ModulePieceType.ENTITY_LOOT)) {
-			if(piece.test(livingEntity)) {
-				stacks.addAll(piece.getLoots(this.world, livingEntity));
-				if(piece.shouldReplace()) keepOld = false;
+		LootContext lootContext = null;
+		for(ModulePlan.EntityLoot loot : loots) {
+			EntityLootModulePiece piece = loot.piece();
+			if(piece.hasLootTable()) {
+				if(lootContext == null) lootContext = EntityLootModulePiece.createLootContext(this.world, livingEntity);
+				stacks.addAll(loot.getLoots(lootContext));
 			}
+			if(piece.shouldReplace()) keepOld = false;
 		}
 		if(keepOld) stacks.addAll(itemStacks);
 		return TypedActionResult.pass(stacks);
 	}
 
 	private TypedActionResult<List<ItemStack>> onBlockDrop(@Nullable Entity entity, ServerWorld world, BlockPos pos, BlockState state, List<ItemStack> itemStacks) {
+		ModulePlan.BlockLoot[] loots = this.config.plan().getBlockLoot(state);
+		UHCDropAggregator.Batch drops = this.dropAggregator.getBatch();
+		if(loots.length == 0) {
+			if(drops == null) return TypedActionResult.pass(itemStacks);
+			drops.addStacks(itemStacks);
+			return TypedActionResult.pass(Collections.emptyList());
+		}
+
 		boolean keepOld = true;
 		List<ItemStack> stacks = new ArrayList<>();
-		for(BlockLootModulePiece piece : this.config.getModulesPieces(ModulePieceType.BLOCK_LOOT)) {
-			if(piece.test(state, world.getRandom())) {
+		LootContext lootContext = null;
+		for(ModulePlan.BlockLoot loot : loots) {
+			BlockLootModulePiece piece = loot.piece();
+			if(piece.isRandom() && !piece.test(state, world.getRandom())) continue;
+			if(drops != null) {
+				drops.addExperience(piece.getExperience());
+			}
+			else {
 				piece.spawnExperience(world, pos);
-				stacks.addAll(piece.getLoots(world, pos, entity, entity instanceof LivingEntity ? ((LivingEntity) entity).getActiveItem() : ItemStack.EMPTY));
-				if(piece.shouldReplace()) keepOld = false;
 			}
+			if(piece.hasLootTable()) {
+				if(lootContext == null) lootContext = BlockLootModulePiece.createLootContext(world, pos, state, entity, entity instanceof LivingEntity ? ((LivingEntity) entity).getActiveItem() : ItemStack.EMPTY);
+				stacks.addAll(loot.getLoots(lootContext));
+			}
+			if(piece.shouldReplace()) keepOld = false;
 		}
 		if(keepOld) stacks.addAll(itemStacks);
+		if(drops != null) {
+			drops.addStacks(stacks);
+			return TypedActionResult.pass(Collections.emptyList());
+		}
 		return TypedActionResult.pass(stacks);
 	}
 }
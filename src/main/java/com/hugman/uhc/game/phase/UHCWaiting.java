@@ -3,19 +3,25 @@ package com.hugman.uhc.game.phase;
 import com.hugman.uhc.config.UHCConfig;
 import com.hugman.uhc.game.UHCSpawner;
 import com.hugman.uhc.map.UHCMap;
+import com.hugman.uhc.map.UHCPreGenerator;
+import net.minecraft.entity.boss.BossBar;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.TranslatableText;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.util.registry.RegistryKey;
 import net.minecraft.world.GameMode;
 import net.minecraft.world.GameRules;
+import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.fantasy.RuntimeWorldConfig;
 import xyz.nucleoid.plasmid.game.GameOpenContext;
 import xyz.nucleoid.plasmid.game.GameOpenProcedure;
 import xyz.nucleoid.plasmid.game.GameResult;
 import xyz.nucleoid.plasmid.game.GameSpace;
 import xyz.nucleoid.plasmid.game.common.GameWaitingLobby;
+import xyz.nucleoid.plasmid.game.common.GlobalWidgets;
+import xyz.nucleoid.plasmid.game.common.widget.BossBarWidget;
 import xyz.nucleoid.plasmid.game.common.team.TeamManager;
 import xyz.nucleoid.plasmid.game.event.GameActivityEvents;
 import xyz.nucleoid.plasmid.game.event.GamePlayerEvents;
@@ -25,23 +31,34 @@ import xyz.nucleoid.stimuli.event.player.PlayerAttackEntityEvent;
 import xyz.nucleoid.stimuli.event.player.PlayerDamageEvent;
 import xyz.nucleoid.stimuli.event.player.PlayerDeathEvent;
 
-public record UHCWaiting(GameSpace gameSpace, ServerWorld world, UHCMap map, UHCConfig config, TeamManager teamManager) {
+public record UHCWaiting(GameSpace gameSpace, ServerWorld world, UHCMap map, UHCConfig config, TeamManager teamManager, @Nullable UHCPreGenerator preGenerator, @Nullable BossBarWidget preGenerationBar) {
 	public static GameOpenProcedure open(GameOpenContext<UHCConfig> context) {
+		context.config().plan().resolve(context.server());
 		UHCMap map = new UHCMap(context.config(), context.server());
 
 		RuntimeWorldConfig worldConfig = new RuntimeWorldConfig()
 				.setGenerator(map.getChunkGenerator())
+				.setSeed(map.getSeed())
 				.setGameRule(GameRules.NATURAL_REGENERATION, false)
 				.setGameRule(GameRules.DO_MOB_SPAWNING, true)
 				.setGameRule(GameRules.DO_DAYLIGHT_CYCLE, true)
 				.setDimensionType(RegistryKey.of(Registry.DIMENSION_TYPE_KEY, context.config().mapConfig().dimension()));
 
 		return context.openWithWorld(worldConfig, (activity, world) -> {
+			map.mount(world);
 			GameWaitingLobby.addTo(activity, context.config().playerConfig());
 			TeamManager teamManager = TeamManager.addTo(activity);
 
-			UHCWaiting waiting = new UHCWaiting(activity.getGameSpace(), world, map, context.config(), teamManager);
+			UHCPreGenerator preGenerator = null;
+			BossBarWidget preGenerationBar = null;
+			if(context.config().mapConfig().pregenerate()) {
+				preGenerator = new UHCPreGenerator(world, context.config());
+				preGenerationBar = GlobalWidgets.addTo(activity).addBossBar(new TranslatableText("text.uhc.pregenerating", 0), BossBar.Color.GREEN, BossBar.Style.NOTCHED_10);
+			}
 
+			UHCWaiting waiting = new UHCWaiting(activity.getGameSpace(), world, map, context.config(), teamManager, preGenerator, preGenerationBar);
+
+			activity.listen(GameActivityEvents.TICK, waiting::tick);
 			activity.listen(GamePlayerEvents.OFFER, waiting::offerPlayer);
 			activity.listen(GameActivityEvents.REQUEST_START, waiting::requestStart);
 			activity.listen(PlayerDeathEvent.EVENT, (player, source) -> ActionResult.FAIL);
@@ -57,7 +74,27 @@ public record UHCWaiting(GameSpace gameSpace, ServerWorld world, UHCMap map, UHC
 		});
 	}
 
+	private void tick() {
+		if(this.preGenerator != null && this.preGenerationBar != null) {
+			this.preGenerator.tick(this.gameSpace.getPlayers().size());
+			if(this.preGenerator.isFinished()) {
+				this.map.store(this.world, this.preGenerator.getGeneratedChunks());
+			}
+			if(this.world.getTime() % 20 == 0) {
+				float progress = this.preGenerator.getProgress();
+				this.preGenerationBar.setTitle(new TranslatableText("text.uhc.pregenerating", (int) (progress * 100)));
+				this.preGenerationBar.setProgress(progress);
+			}
+		}
+	}
+
 	private GameResult requestStart() {
+		if(this.preGenerator != null) {
+			if(!this.preGenerator.isCoreReady()) {
+				return GameResult.error(new TranslatableText("text.uhc.pregenerating.not_ready"));
+			}
+			this.preGenerator.close();
+		}
 		UHCActive.start(this.gameSpace, this.world, this.config, this.map);
 		return GameResult.ok();
 	}
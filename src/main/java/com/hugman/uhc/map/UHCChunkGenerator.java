@@ -1,11 +1,10 @@
 package com.hugman.uhc.map;
 
 import com.hugman.uhc.config.UHCConfig;
-import com.hugman.uhc.module.piece.ModulePieceType;
-import com.hugman.uhc.module.piece.PlacedFeaturesModulePiece;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.world.ChunkRegion;
 import net.minecraft.world.HeightLimitView;
@@ -21,6 +20,7 @@ import net.minecraft.world.gen.StructureAccessor;
 import net.minecraft.world.gen.chunk.Blender;
 import net.minecraft.world.gen.chunk.ChunkGenerator;
 import net.minecraft.world.gen.chunk.VerticalBlockSample;
+import net.minecraft.world.gen.feature.PlacedFeature;
 import net.minecraft.world.gen.random.ChunkRandom;
 import net.minecraft.world.gen.random.Xoroshiro128PlusPlusRandom;
 import xyz.nucleoid.plasmid.game.world.generator.GameChunkGenerator;
@@ -32,17 +32,38 @@ public class UHCChunkGenerator extends GameChunkGenerator {
 	private final UHCConfig config;
 	private final long seed;
 	private final ChunkGenerator subGenerator;
+	private final UHCGenerationTimings timings = new UHCGenerationTimings();
+	/**
+	 * How far from the center chunks are generated, from the biggest size the world border can start at.
+	 * It is fixed when the generator is created, so that a chunk never goes through some steps under one limit and the rest under another.
+	 */
+	private final int generationLimit;
 
 	public UHCChunkGenerator(MinecraftServer server, UHCConfig config, long seed) {
 		super(server);
 		this.config = config;
 		this.seed = seed;
 		this.subGenerator = GeneratorOptions.createOverworldGenerator(server.getRegistryManager(), seed);
+		this.generationLimit = MathHelper.ceil(config.mapConfig().startSize().max() / 2) + (config.mapConfig().borderMargin() << 4);
+	}
+
+	private boolean isOutsideArena(ChunkPos pos) {
+		if(!this.config.mapConfig().voidOutsideBorder()) return false;
+		int limit = this.generationLimit;
+		return pos.getStartX() > limit || pos.getEndX() < -limit || pos.getStartZ() > limit || pos.getEndZ() < -limit;
+	}
+
+	public UHCGenerationTimings getTimings() {
+		return timings;
 	}
 
 	@Override
 	public CompletableFuture<Chunk> populateBiomes(Registry<Biome> biomeRegistry, Executor executor, Blender blender, StructureAccessor structureAccessor, Chunk chunk) {
-		return this.subGenerator.populateBiomes(biomeRegistry, executor, blender, structureAccessor, chunk);
+		long startTime = System.nanoTime();
+		return this.subGenerator.populateBiomes(biomeRegistry, executor, blender, structureAccessor, chunk).thenApply(c -> {
+			this.timings.record(UHCGenerationTimings.Stage.BIOMES, startTime);
+			return c;
+		});
 	}
 
 	@Override
@@ -52,36 +73,59 @@ public class UHCChunkGenerator extends GameChunkGenerator {
 
 	@Override
 	public void buildSurface(ChunkRegion region, StructureAccessor structures, Chunk chunk) {
+		if(this.isOutsideArena(chunk.getPos())) return;
+		long startTime = System.nanoTime();
 		this.subGenerator.buildSurface(region, structures, chunk);
+		this.timings.record(UHCGenerationTimings.Stage.SURFACE, startTime);
 	}
 
 	@Override
 	public CompletableFuture<Chunk> populateNoise(Executor executor, Blender blender, StructureAccessor structureAccessor, Chunk chunk) {
-		return this.subGenerator.populateNoise(executor, blender, structureAccessor, chunk);
+		if(this.isOutsideArena(chunk.getPos())) return CompletableFuture.completedFuture(chunk);
+		long startTime = System.nanoTime();
+		return this.subGenerator.populateNoise(executor, blender, structureAccessor, chunk).thenApply(c -> {
+			this.timings.record(UHCGenerationTimings.Stage.NOISE, startTime);
+			return c;
+		});
 	}
 
 	@Override
 	public void carve(ChunkRegion chunkRegion, long seed, BiomeAccess biomeAccess, StructureAccessor structureAccessor, Chunk chunk, GenerationStep.Carver generationStep) {
+		if(this.isOutsideArena(chunk.getPos())) return;
+		long startTime = System.nanoTime();
 		this.subGenerator.carve(chunkRegion, seed, biomeAccess, structureAccessor, chunk, generationStep);
+		this.timings.record(UHCGenerationTimings.Stage.CARVERS, startTime);
 	}
 
 	@Override
 	public void generateFeatures(StructureWorldAccess world, Chunk chunk, StructureAccessor structureAccessor) {
 		ChunkPos chunkPos = chunk.getPos();
+		if(this.isOutsideArena(chunkPos)) return;
 		int i = chunkPos.getStartX();
 		int j = chunkPos.getStartZ();
 		BlockPos blockPos = new BlockPos(i, chunk.getBottomY(), j);
 		ChunkRandom chunkRandom = new ChunkRandom(new Xoroshiro128PlusPlusRandom(this.seed));
 		chunkRandom.setPopulationSeed(world.getSeed(), i, j);
-		for(PlacedFeaturesModulePiece piece : this.config.getModulesPieces(ModulePieceType.PLACED_FEATURES)) {
-			piece.getValues(world).forEach(v -> v.generate(world, this, chunkRandom, blockPos));
+		long startTime = System.nanoTime();
+		for(PlacedFeature feature : this.config.plan().getPlacedFeatures()) {
+			long featureStartTime = System.nanoTime();
+			feature.generate(world, this, chunkRandom, blockPos);
+			this.timings.recordFeature(feature, featureStartTime);
 		}
+		this.timings.record(UHCGenerationTimings.Stage.MODULE_FEATURES, startTime);
+
+		startTime = System.nanoTime();
 		this.subGenerator.generateFeatures(world, chunk, structureAccessor);
+		this.timings.record(UHCGenerationTimings.Stage.FEATURES, startTime);
+		this.timings.recordChunk();
 	}
 
 	@Override
 	public void populateEntities(ChunkRegion region) {
+		if(this.isOutsideArena(region.getCenterPos())) return;
+		long startTime = System.nanoTime();
 		this.subGenerator.populateEntities(region);
+		this.timings.record(UHCGenerationTimings.Stage.ENTITIES, startTime);
 	}
 
 	@Override
@@ -0,0 +1,98 @@
+package com.hugman.uhc.map;
+
+import com.hugman.uhc.util.LatencyHistogram;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.registry.DynamicRegistryManager;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.gen.feature.PlacedFeature;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings of every generation stage of a {@link UHCChunkGenerator}, and of every placed feature added by the modules.
+ */
+public class UHCGenerationTimings {
+	private final LatencyHistogram[] stages = new LatencyHistogram[Stage.values().length];
+	private final Map<PlacedFeature, LatencyHistogram> features = new ConcurrentHashMap<>();
+	private final LongAdder chunks = new LongAdder();
+	private volatile long startTime = System.nanoTime();
+
+	public UHCGenerationTimings() {
+		for(int i = 0; i < this.stages.length; i++) {
+			this.stages[i] = new LatencyHistogram();
+		}
+	}
+
+	public void record(Stage stage, long startTime) {
+		this.stages[stage.ordinal()].record(System.nanoTime() - startTime);
+	}
+
+	public void recordFeature(PlacedFeature feature, long startTime) {
+		this.features.computeIfAbsent(feature, f -> new LatencyHistogram()).record(System.nanoTime() - startTime);
+	}
+
+	public void recordChunk() {
+		this.chunks.increment();
+	}
+
+	public double getChunksPerSecond() {
+		double seconds = (System.nanoTime() - this.startTime) / 1.0E9D;
+		return seconds <= 0 ? 0 : this.chunks.sum() / seconds;
+	}
+
+	public void reset() {
+		for(LatencyHistogram histogram : this.stages) {
+			histogram.reset();
+		}
+		this.features.clear();
+		this.chunks.reset();
+		this.startTime = System.nanoTime();
+	}
+
+	public List<String> report(DynamicRegistryManager registryManager) {
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("%d chunks, %.1f chunks/s", this.chunks.sum(), this.getChunksPerSecond()));
+		for(Stage stage : Stage.values()) {
+			lines.add(stage.getName() + ": " + this.stages[stage.ordinal()].summarize());
+		}
+		Registry<PlacedFeature> registry = registryManager.get(Registry.PLACED_FEATURE_KEY);
+		this.features.forEach((feature, histogram) -> {
+			Identifier id = registry.getId(feature);
+			lines.add((id == null ? "unknown" : id.toString()) + ": " + histogram.summarize());
+		});
+		return lines;
+	}
+
+	public void write(Path path, DynamicRegistryManager registryManager) throws IOException {
+		Files.createDirectories(path.getParent());
+		try(BufferedWriter writer = Files.newBufferedWriter(path)) {
+			for(String line : this.report(registryManager)) {
+				writer.write(line);
+				writer.newLine();
+			}
+		}
+	}
+
+	public enum Stage {
+		BIOMES,
+		NOISE,
+		SURFACE,
+		CARVERS,
+		MODULE_FEATURES,
+		FEATURES,
+		ENTITIES;
+
+		public String getName() {
+			return this.name().toLowerCase(Locale.ROOT);
+		}
+	}
+}
@@ -1,17 +1,32 @@
 package com.hugman.uhc.map;
 
+import com.hugman.uhc.UHC;
 import com.hugman.uhc.config.UHCConfig;
+import it.unimi.dsi.fastutil.longs.LongCollection;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.world.gen.chunk.ChunkGenerator;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.OptionalLong;
 
 public class UHCMap {
 	private final UHCConfig config;
 	private final long seed;
 	private final ChunkGenerator chunkGenerator;
+	@Nullable
+	private final String poolKey;
+	private final boolean pooled;
+	private boolean stored = false;
 
 	public UHCMap(UHCConfig config, MinecraftServer server) {
 		this.config = config;
-		this.seed = server.getOverworld().getRandom().nextLong();
+		this.poolKey = config.mapConfig().mapPool() ? UHCMapPool.getKey(config) : null;
+		OptionalLong pooledSeed = this.poolKey != null ? UHCMapPool.take(server, this.poolKey) : OptionalLong.empty();
+		this.pooled = pooledSeed.isPresent();
+		this.seed = pooledSeed.orElseGet(() -> server.getOverworld().getRandom().nextLong());
 		this.chunkGenerator = new UHCChunkGenerator(server, config, seed);
 	}
 
@@ -22,4 +37,39 @@ public class UHCMap {
 	public ChunkGenerator getChunkGenerator() {
 		return chunkGenerator;
 	}
+
+	/**
+	 * Copies the pooled map into the world, if this map was taken from the pool.
+	 */
+	public void mount(ServerWorld world) {
+		if(this.poolKey != null && this.pooled) {
+			UHCMapPool.mount(world, this.poolKey, this.seed);
+		}
+	}
+
+	/**
+	 * Stores the given generated chunks in the pool, if this map was freshly generated.
+	 */
+	public void store(ServerWorld world, LongCollection chunks) {
+		if(this.poolKey != null && !this.pooled && !this.stored) {
+			this.stored = true;
+			UHCMapPool.store(world, this.poolKey, this.seed, chunks);
+		}
+	}
+
+	/**
+	 * Writes the generation timings of this map to the {@code uhc_timings} folder of the server.
+	 */
+	public void writeGenerationTimings(ServerWorld world) {
+		if(this.chunkGenerator instanceof UHCChunkGenerator generator) {
+			MinecraftServer server = world.getServer();
+			Path path = server.getRunDirectory().toPath().resolve("uhc_timings").resolve(world.getRegistryKey().getValue().getPath().replace('/', '_') + "-" + System.currentTimeMillis() + ".txt");
+			try {
+				generator.getTimings().write(path, server.getRegistryManager());
+				UHC.LOGGER.info("Wrote UHC world generation timings to {}", path);
+			} catch(IOException e) {
+				UHC.LOGGER.error("Failed to write UHC world generation timings", e);
+			}
+		}
+	}
 }
@@ -0,0 +1,316 @@
+package com.hugman.uhc.map;
+
+import com.google.common.hash.Hashing;
+import com.hugman.uhc.UHC;
+import com.hugman.uhc.config.UHCConfig;
+import com.hugman.uhc.config.UHCMapConfig;
+import com.hugman.uhc.module.piece.ModulePieceType;
+import com.hugman.uhc.module.piece.PlacedFeaturesModulePiece;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.registry.BuiltinRegistries;
+import net.minecraft.world.dimension.DimensionType;
+import net.minecraft.world.storage.RegionFile;
+import net.minecraft.world.storage.VersionedChunkStorage;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * A local pool of fully generated UHC maps, stored in the {@code uhc_map_pool} folder of the server.
+ * <p>
+ * Entries are grouped by a key made of the generation settings of the map and the placed features added by the modules, and each entry is named after its seed.
+ * Every entry also keeps a spare copy of itself that can be moved into a new world at almost no cost, and which gets prepared again in the background right after.
+ * Copies, stores and evictions all run on a single low priority thread.
+ * Once a key holds enough maps, games mostly take one of them, but some still generate a fresh map so that new seeds keep coming in while the least recently used ones get evicted.
+ * <p>
+ * An entry only needs to hold some of the chunks of its map: since the generator is seeded, any missing chunk is generated again exactly as it was.
+ */
+public final class UHCMapPool {
+	private static final long MAX_SIZE = Long.getLong("uhc.map_pool.max_size", 4L * 1024 * 1024 * 1024);
+	private static final int TARGET_ENTRIES = Integer.getInteger("uhc.map_pool.target_entries", 4);
+	private static final int FRESH_INTERVAL = Integer.getInteger("uhc.map_pool.fresh_interval", 4);
+	private static final String[] FOLDERS = {"region", "entities", "poi"};
+	private static final String SPARE_SUFFIX = ".spare";
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+
+	/**
+	 * Entries that were picked by a game which did not mount them yet.
+	 */
+	private static final Set<Path> CLAIMED = ConcurrentHashMap.newKeySet();
+	/**
+	 * How many games asked for a map of each key since the server started.
+	 */
+	private static final Object2IntMap<String> REQUESTS = new Object2IntOpenHashMap<>();
+
+	private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "UHC Map Pool");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+
+	private UHCMapPool() {
+	}
+
+	/**
+	 * Gets the key of the maps generated for this config. Only the parts of the config that change the generated chunks are part of it.
+	 */
+	public static String getKey(UHCConfig config) {
+		UHCMapConfig mapConfig = config.mapConfig();
+		StringBuilder builder = new StringBuilder();
+		builder.append(mapConfig.dimension()).append(';').append(BuiltinRegistries.CHUNK_GENERATOR_SETTINGS.getId(mapConfig.chunkSettings()));
+		if(mapConfig.voidOutsideBorder()) {
+			builder.append(";void:").append(mapConfig.startSize().max()).append(':').append(mapConfig.borderMargin());
+		}
+		config.getModulesPieces(ModulePieceType.PLACED_FEATURES).stream()
+				.map(PlacedFeaturesModulePiece::getIdentifiers)
+				.flatMap(List::stream)
+				.map(Identifier::toString)
+				.sorted()
+				.forEach(id -> builder.append(';').append(id));
+		return Hashing.murmur3_128().hashString(builder, StandardCharsets.UTF_8).toString();
+	}
+
+	/**
+	 * Picks the least recently used map stored for this key.
+	 * Nothing is returned while the pool holds less than its target amount of maps for this key, so that new games keep filling it.
+	 * After that, nothing is returned for one request in {@code uhc.map_pool.fresh_interval} either, so that the pool keeps getting new maps.
+	 * The picked map is claimed until it gets {@linkplain #mount mounted}, so that no other game can pick it in the meantime.
+	 */
+	public static synchronized OptionalLong take(MinecraftServer server, String key) {
+		Path keyFolder = getRoot(server).resolve(key);
+		if(!Files.isDirectory(keyFolder)) return OptionalLong.empty();
+		try {
+			List<Path> entries = listEntries(keyFolder);
+			if(entries.size() < TARGET_ENTRIES) return OptionalLong.empty();
+			int requests = REQUESTS.getInt(key) + 1;
+			REQUESTS.put(key, requests);
+			if(requests % FRESH_INTERVAL == 0) return OptionalLong.empty();
+			entries.removeIf(CLAIMED::contains);
+			if(entries.isEmpty()) return OptionalLong.empty();
+			entries.sort(Comparator.comparing(UHCMapPool::getLastUsed));
+			Path entry = entries.get(0);
+			long seed = Long.parseLong(entry.getFileName().toString());
+			Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+			CLAIMED.add(entry);
+			return OptionalLong.of(seed);
+		} catch(IOException | NumberFormatException e) {
+			UHC.LOGGER.error("Failed to pick a map from the UHC map pool", e);
+			return OptionalLong.empty();
+		}
+	}
+
+	/**
+	 * Fills the folder of the given world with the stored map.
+	 * This must be done before any chunk of the world gets loaded.
+	 */
+	public static void mount(ServerWorld world, String key, long seed) {
+		MinecraftServer server = world.getServer();
+		Path entry = getRoot(server).resolve(key).resolve(String.valueOf(seed));
+		Path spare = entry.resolveSibling(seed + SPARE_SUFFIX);
+		Path worldFolder = getWorldFolder(world);
+		try {
+			if(Files.isDirectory(spare)) {
+				for(String folder : FOLDERS) {
+					Path source = spare.resolve(folder);
+					if(Files.isDirectory(source)) {
+						Files.createDirectories(worldFolder);
+						Files.move(source, worldFolder.resolve(folder), StandardCopyOption.ATOMIC_MOVE);
+					}
+				}
+				delete(spare);
+			}
+			else {
+				copy(entry, worldFolder);
+			}
+		} catch(IOException e) {
+			UHC.LOGGER.error("Failed to mount map {} from the UHC map pool", seed, e);
+		} finally {
+			CLAIMED.remove(entry);
+		}
+		EXECUTOR.execute(() -> prepareSpare(entry, spare));
+	}
+
+	/**
+	 * Stores the given chunks of the world in the pool in the background.
+	 * <p>
+	 * The loaded chunks of the world are saved first, without waiting for them to be written, so that every chunk is either on disk or queued in the chunk storage by the time it is read back.
+	 * Chunks are then read back through the chunk storage instead of copying its region files, so that nothing is read while the storage is writing it.
+	 * The entry is written to a temporary folder first, and only moved into the pool once complete.
+	 */
+	public static void store(ServerWorld world, String key, long seed, LongCollection chunks) {
+		world.getChunkManager().save(false);
+		VersionedChunkStorage storage = world.getChunkManager().threadedAnvilChunkStorage;
+		long[] positions = chunks.toLongArray();
+		Path root = getRoot(world.getServer());
+		EXECUTOR.execute(() -> {
+			Path entry = root.resolve(key).resolve(String.valueOf(seed));
+			Path temporary = entry.resolveSibling(seed + TEMPORARY_SUFFIX);
+			try {
+				delete(temporary);
+				int written = writeRegions(storage, positions, temporary.resolve("region"));
+				Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+				UHC.LOGGER.info("Stored map {} in the UHC map pool with {} chunks", seed, written);
+			} catch(IOException | RuntimeException e) {
+				UHC.LOGGER.error("Failed to store map {} in the UHC map pool", seed, e);
+				try {
+					delete(temporary);
+				} catch(IOException ignored) {
+				}
+				return;
+			}
+			prepareSpare(entry, entry.resolveSibling(seed + SPARE_SUFFIX));
+			evict(root);
+		});
+	}
+
+	private static int writeRegions(VersionedChunkStorage storage, long[] chunks, Path folder) throws IOException {
+		Files.createDirectories(folder);
+		Long2ObjectMap<RegionFile> regions = new Long2ObjectOpenHashMap<>();
+		int written = 0;
+		try {
+			for(long l : chunks) {
+				ChunkPos pos = new ChunkPos(l);
+				NbtCompound nbt = storage.getNbt(pos);
+				if(nbt == null) continue;
+
+				long regionPos = ChunkPos.toLong(pos.getRegionX(), pos.getRegionZ());
+				RegionFile region = regions.get(regionPos);
+				if(region == null) {
+					region = new RegionFile(folder.resolve("r." + pos.getRegionX() + "." + pos.getRegionZ() + ".mca"), folder, false);
+					regions.put(regionPos, region);
+				}
+				try(DataOutputStream stream = region.getChunkOutputStream(pos)) {
+					NbtIo.write(nbt, stream);
+				}
+				written++;
+			}
+		} finally {
+			for(RegionFile region : regions.values()) {
+				region.close();
+			}
+		}
+		return written;
+	}
+
+	private static void prepareSpare(Path entry, Path spare) {
+		if(Files.isDirectory(spare) || !Files.isDirectory(entry)) return;
+		Path temporary = spare.resolveSibling(spare.getFileName() + TEMPORARY_SUFFIX);
+		try {
+			delete(temporary);
+			copy(entry, temporary);
+			Files.move(temporary, spare, StandardCopyOption.ATOMIC_MOVE);
+		} catch(IOException e) {
+			UHC.LOGGER.error("Failed to prepare a spare copy of {}", entry, e);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used maps until the pool fits in its maximum size again.
+	 */
+	private static void evict(Path root) {
+		try(Stream<Path> keys = Files.list(root)) {
+			List<Path> entries = new ArrayList<>();
+			for(Path keyFolder : keys.filter(Files::isDirectory).toList()) {
+				entries.addAll(listEntries(keyFolder));
+			}
+			long totalSize = 0;
+			for(Path entry : entries) {
+				totalSize += getSize(entry) + getSize(getSpare(entry));
+			}
+			entries.sort(Comparator.comparing(UHCMapPool::getLastUsed));
+			for(Path entry : entries) {
+				if(totalSize <= MAX_SIZE) break;
+				if(CLAIMED.contains(entry)) continue;
+				totalSize -= getSize(entry) + getSize(getSpare(entry));
+				delete(getSpare(entry));
+				delete(entry);
+				UHC.LOGGER.info("Evicted {} from the UHC map pool", entry.getFileName());
+			}
+		} catch(IOException | UncheckedIOException e) {
+			UHC.LOGGER.error("Failed to evict maps from the UHC map pool", e);
+		}
+	}
+
+	private static List<Path> listEntries(Path keyFolder) throws IOException {
+		try(Stream<Path> stream = Files.list(keyFolder)) {
+			return new ArrayList<>(stream.filter(path -> Files.isDirectory(path) && !path.getFileName().toString().contains(".")).toList());
+		}
+	}
+
+	private static Path getSpare(Path entry) {
+		return entry.resolveSibling(entry.getFileName() + SPARE_SUFFIX);
+	}
+
+	private static FileTime getLastUsed(Path entry) {
+		try {
+			return Files.getLastModifiedTime(entry);
+		} catch(IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	private static long getSize(Path path) throws IOException {
+		if(!Files.exists(path)) return 0;
+		try(Stream<Path> stream = Files.walk(path)) {
+			return stream.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+		}
+	}
+
+	private static void copy(Path from, Path to) throws IOException {
+		for(String folder : FOLDERS) {
+			Path source = from.resolve(folder);
+			if(!Files.isDirectory(source)) continue;
+			Path target = to.resolve(folder);
+			Files.createDirectories(target);
+			try(Stream<Path> files = Files.list(source)) {
+				for(Path file : files.filter(Files::isRegularFile).toList()) {
+					Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+		}
+	}
+
+	private static void delete(Path path) throws IOException {
+		if(!Files.exists(path)) return;
+		try(Stream<Path> stream = Files.walk(path)) {
+			for(Path file : stream.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	private static Path getRoot(MinecraftServer server) {
+		return server.getRunDirectory().toPath().resolve("uhc_map_pool");
+	}
+
+	private static Path getWorldFolder(ServerWorld world) {
+		return DimensionType.getSaveDirectory(world.getRegistryKey(), world.getServer().getSavePath(WorldSavePath.ROOT));
+	}
+}
@@ -0,0 +1,154 @@
+package com.hugman.uhc.map;
+
+import com.hugman.uhc.UHC;
+import com.hugman.uhc.config.UHCConfig;
+import com.hugman.uhc.game.UHCLogic;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerChunkManager;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.Comparator;
+
+/**
+ * Generates every chunk inside the starting world border while the game is still waiting for players.
+ * Chunks are requested through tickets so that the actual generation runs on the worldgen executor, and only a limited amount of them are in flight at once.
+ * The chunks around the cage ring are generated first, so that the game can start as soon as they are ready.
+ */
+public class UHCPreGenerator {
+	private static final ChunkTicketType<ChunkPos> TICKET = ChunkTicketType.create("uhc_pregeneration", Comparator.comparingLong(ChunkPos::toLong));
+	private static final int CORE_MARGIN = 24;
+
+	private final ServerWorld world;
+	private final UHCConfig config;
+	private final int concurrency;
+
+	private final LongSet generated = new LongOpenHashSet();
+	private final LongSet core = new LongOpenHashSet();
+	private final LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+	private final LongList inFlight = new LongArrayList();
+
+	private int playerAmount = -1;
+	private int total;
+	private int done;
+	private boolean finished;
+
+	public UHCPreGenerator(ServerWorld world, UHCConfig config) {
+		this.world = world;
+		this.config = config;
+		this.concurrency = config.mapConfig().pregenerationConcurrency();
+	}
+
+	public void tick(int playerAmount) {
+		playerAmount = Math.max(playerAmount, this.config.playerConfig().minPlayers());
+		if(playerAmount != this.playerAmount) {
+			this.plan(playerAmount);
+		}
+
+		ServerChunkManager chunkManager = this.world.getChunkManager();
+		for(int i = this.inFlight.size() - 1; i >= 0; i--) {
+			long l = this.inFlight.getLong(i);
+			// The ticket level applies well before the chunk is generated, so only a chunk that reached the full status counts as done
+			if(chunkManager.getWorldChunk(ChunkPos.getPackedX(l), ChunkPos.getPackedZ(l), false) != null) {
+				ChunkPos pos = new ChunkPos(l);
+				chunkManager.removeTicket(TICKET, pos, 0, pos);
+				this.inFlight.removeLong(i);
+				this.generated.add(l);
+				this.core.remove(l);
+				this.done++;
+			}
+		}
+
+		while(this.inFlight.size() < this.concurrency && !this.queue.isEmpty()) {
+			long l = this.queue.dequeueLong();
+			if(this.generated.contains(l)) continue;
+			ChunkPos pos = new ChunkPos(l);
+			chunkManager.addTicket(TICKET, pos, 0, pos);
+			this.inFlight.add(l);
+		}
+
+		if(!this.finished && this.isFinished()) {
+			this.finished = true;
+			UHC.LOGGER.info("Pre-generated {} chunks for a UHC map of {} players", this.total, this.playerAmount);
+		}
+	}
+
+	/**
+	 * Queues the chunks inside the starting border for the given amount of players.
+	 * The chunks close to the cage ring come first, then the others are queued in a spiral going out from the center.
+	 */
+	private void plan(int playerAmount) {
+		this.playerAmount = playerAmount;
+		this.queue.clear();
+		this.core.clear();
+		this.done = 0;
+		this.finished = false;
+
+		UHCLogic logic = new UHCLogic(this.config, playerAmount);
+		double halfSize = logic.getStartMapSize() / 2;
+		double ringRadius = halfSize - this.config.mapConfig().spawnOffset();
+		int min = MathHelper.floor(-halfSize) >> 4;
+		int max = MathHelper.floor(halfSize) >> 4;
+		int radius = Math.max(-min, max);
+
+		LongList others = new LongArrayList();
+		for(int r = 0; r <= radius; r++) {
+			for(int x = Math.max(-r, min); x <= Math.min(r, max); x++) {
+				for(int z = Math.max(-r, min); z <= Math.min(r, max); z++) {
+					if(Math.abs(x) != r && Math.abs(z) != r) continue;
+					long l = ChunkPos.toLong(x, z);
+					if(this.generated.contains(l)) {
+						this.done++;
+						continue;
+					}
+					double distance = Math.sqrt(MathHelper.square((x << 4) + 8) + MathHelper.square((z << 4) + 8));
+					boolean isCore = r == 0 || Math.abs(distance - ringRadius) <= CORE_MARGIN;
+					if(isCore) this.core.add(l);
+					if(this.inFlight.contains(l)) continue;
+
+					if(isCore) this.queue.enqueue(l);
+					else others.add(l);
+				}
+			}
+		}
+		for(int i = 0; i < others.size(); i++) {
+			this.queue.enqueue(others.getLong(i));
+		}
+		this.total = this.done + this.queue.size() + this.inFlight.size();
+	}
+
+	public boolean isCoreReady() {
+		return this.playerAmount != -1 && this.core.isEmpty();
+	}
+
+	public boolean isFinished() {
+		return this.playerAmount != -1 && this.queue.isEmpty() && this.inFlight.isEmpty();
+	}
+
+	/**
+	 * Gets the chunks that were generated so far, which the chunk manager has saved or will save once they unload.
+	 */
+	public LongSet getGeneratedChunks() {
+		return this.generated;
+	}
+
+	public float getProgress() {
+		return this.total == 0 ? 1.0F : Math.min((float) this.done / this.total, 1.0F);
+	}
+
+	public void close() {
+		ServerChunkManager chunkManager = this.world.getChunkManager();
+		for(int i = 0; i < this.inFlight.size(); i++) {
+			ChunkPos pos = new ChunkPos(this.inFlight.getLong(i));
+			chunkManager.removeTicket(TICKET, pos, 0, pos);
+		}
+		this.inFlight.clear();
+		this.queue.clear();
+	}
+}
@@ -0,0 +1,211 @@
+package com.hugman.uhc.module;
+
+import com.hugman.uhc.config.UHCConfig;
+import com.hugman.uhc.module.piece.BlockLootModulePiece;
+import com.hugman.uhc.module.piece.EntityLootModulePiece;
+import com.hugman.uhc.module.piece.ModulePiece;
+import com.hugman.uhc.module.piece.ModulePieceType;
+import com.hugman.uhc.module.piece.PlacedFeaturesModulePiece;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.EntityType;
+import net.minecraft.item.ItemStack;
+import net.minecraft.loot.LootTable;
+import net.minecraft.loot.context.LootContext;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.gen.feature.PlacedFeature;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.plasmid.game.manager.GameSpaceManager;
+import xyz.nucleoid.plasmid.game.manager.ManagedGameSpace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The module pieces of a game, grouped by type in an array indexed by {@link ModulePieceType#index()}.
+ * <p>
+ * Pieces are resolved against the server before the game uses them, and resolved again when data packs get reloaded.
+ * What they resolve to is kept by the plan rather than by the pieces, since pieces are shared by every config using their module.
+ * Resolving also builds the tables telling which loot pieces apply to each block state and entity type, since these depend on tags.
+ */
+public final class ModulePlan {
+	private static volatile int generation = 0;
+
+	private final List<ModulePiece>[] pieces;
+	private int resolvedGeneration = -1;
+	@Nullable
+	private volatile Resolved resolved;
+
+	@SuppressWarnings("unchecked")
+	public ModulePlan(List<Module> modules) {
+		List<ModulePiece>[] grouped = new List[ModulePieceType.count()];
+		for(Module module : modules) {
+			for(ModulePiece piece : module.pieces()) {
+				int index = piece.getType().index();
+				if(grouped[index] == null) grouped[index] = new ArrayList<>();
+				grouped[index].add(piece);
+			}
+		}
+		for(int i = 0; i < grouped.length; i++) {
+			grouped[i] = grouped[i] == null ? Collections.emptyList() : List.copyOf(grouped[i]);
+		}
+		this.pieces = grouped;
+	}
+
+	public static void register() {
+		ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> {
+			generation++;
+			for(ManagedGameSpace gameSpace : GameSpaceManager.get().getOpenGameSpaces()) {
+				if(gameSpace.getMetadata().sourceConfig().config() instanceof UHCConfig config) {
+					config.plan().resolve(server);
+				}
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	public <V extends ModulePiece> List<V> get(ModulePieceType<V> type) {
+		int index = type.index();
+		if(index >= this.pieces.length) return Collections.emptyList();
+		return (List<V>) this.pieces[index];
+	}
+
+	public boolean has(ModulePieceType<?> type) {
+		return !this.get(type).isEmpty();
+	}
+
+	/**
+	 * Resolves the pieces against the server, unless they already were since data packs were last reloaded.
+	 */
+	public synchronized void resolve(MinecraftServer server) {
+		if(this.resolvedGeneration == generation) return;
+		this.resolvedGeneration = generation;
+		this.resolve(ModuleResolver.of(server));
+	}
+
+	public synchronized void resolve(ModuleResolver resolver) {
+		this.resolved = new Resolved(this, resolver);
+	}
+
+	private Resolved resolved() {
+		Resolved resolved = this.resolved;
+		if(resolved == null) {
+			throw new IllegalStateException("Module plan used before being resolved");
+		}
+		return resolved;
+	}
+
+	/**
+	 * Gets the block loot that may apply to a block state, in the order of the plan.
+	 * Pieces with a {@linkplain BlockLootModulePiece#isRandom() random target} are always included and still have to be tested.
+	 */
+	public BlockLoot[] getBlockLoot(BlockState state) {
+		Resolved resolved = this.resolved();
+		int id = Block.getRawIdFromState(state);
+		return id >= 0 && id < resolved.blockLootByState.length ? resolved.blockLootByState[id] : resolved.randomBlockLoot;
+	}
+
+	/**
+	 * Gets the entity loot that applies to an entity type, in the order of the plan.
+	 */
+	public EntityLoot[] getEntityLoot(EntityType<?> type) {
+		return this.resolved().entityLootByType.getOrDefault(type, Resolved.NO_ENTITY_LOOT);
+	}
+
+	/**
+	 * Gets the placed features added by the pieces, in the order of the plan.
+	 */
+	public List<PlacedFeature> getPlacedFeatures() {
+		return this.resolved().placedFeatures;
+	}
+
+	public record BlockLoot(BlockLootModulePiece piece, LootTable lootTable) {
+		public List<ItemStack> getLoots(LootContext lootContext) {
+			return this.piece.hasLootTable() ? this.lootTable.generateLoot(lootContext) : Collections.emptyList();
+		}
+	}
+
+	public record EntityLoot(EntityLootModulePiece piece, LootTable lootTable) {
+		public List<ItemStack> getLoots(LootContext lootContext) {
+			return this.piece.hasLootTable() ? this.lootTable.generateLoot(lootContext) : Collections.emptyList();
+		}
+	}
+
+	private static final class Resolved {
+		private static final BlockLoot[] NO_BLOCK_LOOT = new BlockLoot[0];
+		private static final EntityLoot[] NO_ENTITY_LOOT = new EntityLoot[0];
+
+		private final BlockLoot[][] blockLootByState;
+		private final BlockLoot[] randomBlockLoot;
+		private final Reference2ObjectMap<EntityType<?>, EntityLoot[]> entityLootByType;
+		private final List<PlacedFeature> placedFeatures;
+
+		private Resolved(ModulePlan plan, ModuleResolver resolver) {
+			List<BlockLoot> blockLoot = plan.get(ModulePieceType.BLOCK_LOOT).stream().map(piece -> new BlockLoot(piece, piece.resolveLootTable(resolver))).toList();
+			this.randomBlockLoot = blockLoot.stream().filter(loot -> loot.piece().isRandom()).toArray(BlockLoot[]::new);
+			this.blockLootByState = buildBlockLootTable(blockLoot, this.randomBlockLoot);
+			this.entityLootByType = buildEntityLootTable(plan.get(ModulePieceType.ENTITY_LOOT), resolver);
+
+			List<PlacedFeature> placedFeatures = new ArrayList<>();
+			for(PlacedFeaturesModulePiece piece : plan.get(ModulePieceType.PLACED_FEATURES)) {
+				placedFeatures.addAll(piece.resolveFeatures(resolver));
+			}
+			this.placedFeatures = List.copyOf(placedFeatures);
+		}
+
+		private static BlockLoot[][] buildBlockLootTable(List<BlockLoot> blockLoot, BlockLoot[] randomBlockLoot) {
+			BlockLoot[][] table = new BlockLoot[Block.STATE_IDS.size()][];
+			if(blockLoot.size() > randomBlockLoot.length) {
+				// Only random targets use the random, so any will do for the others
+				Random random = new Random(0);
+				List<BlockLoot> matching = new ArrayList<>();
+				for(BlockState state : Block.STATE_IDS) {
+					boolean matched = false;
+					for(BlockLoot loot : blockLoot) {
+						if(loot.piece().isRandom()) {
+							matching.add(loot);
+						}
+						else if(loot.piece().test(state, random)) {
+							matching.add(loot);
+							matched = true;
+						}
+					}
+					table[Block.getRawIdFromState(state)] = matched ? matching.toArray(NO_BLOCK_LOOT) : randomBlockLoot;
+					matching.clear();
+				}
+			}
+			for(int i = 0; i < table.length; i++) {
+				if(table[i] == null) table[i] = randomBlockLoot;
+			}
+			return table;
+		}
+
+		private static Reference2ObjectMap<EntityType<?>, EntityLoot[]> buildEntityLootTable(List<EntityLootModulePiece> pieces, ModuleResolver resolver) {
+			Reference2ObjectMap<EntityType<?>, EntityLoot[]> table = new Reference2ObjectOpenHashMap<>();
+			if(pieces.isEmpty()) return table;
+
+			List<EntityLoot> entityLoot = new ArrayList<>();
+			List<Set<EntityType<?>>> entityTypes = new ArrayList<>();
+			for(EntityLootModulePiece piece : pieces) {
+				entityLoot.add(new EntityLoot(piece, piece.resolveLootTable(resolver)));
+				entityTypes.add(piece.resolveEntityTypes(resolver));
+			}
+			List<EntityLoot> matching = new ArrayList<>();
+			for(EntityType<?> type : Registry.ENTITY_TYPE) {
+				for(int i = 0; i < entityLoot.size(); i++) {
+					if(entityTypes.get(i).contains(type)) matching.add(entityLoot.get(i));
+				}
+				if(!matching.isEmpty()) table.put(type, matching.toArray(NO_ENTITY_LOOT));
+				matching.clear();
+			}
+			return table;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.hugman.uhc.module;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.hugman.uhc.UHC;
+import com.hugman.uhc.UHCRegistries;
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.JsonOps;
+import net.fabricmc.fabric.api.resource.SimpleResourceReloadListener;
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads the modules from the {@code uhc_modules} folder of data packs.
+ * <p>
+ * Files are read and decoded in parallel on the reload executor. A file whose content has not changed since the last reload is not decoded again, its previous module is reused instead.
+ * The registry is only replaced once everything has been loaded, on the server thread, so that it is never seen half-filled.
+ */
+final class ModuleReloadListener implements SimpleResourceReloadListener<Map<Identifier, ModuleReloadListener.Entry>> {
+	private static final String FOLDER = "uhc_modules";
+	private static final String EXTENSION = ".json";
+
+	/**
+	 * The modules of the last reload, by the path of their file. Only replaced by {@link #apply}.
+	 */
+	private volatile Map<Identifier, Entry> loaded = Map.of();
+
+	@Override
+	public Identifier getFabricId() {
+		return UHC.id("modules");
+	}
+
+	@Override
+	public CompletableFuture<Map<Identifier, Entry>> load(ResourceManager manager, Profiler profiler, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> manager.findResources(FOLDER, path -> path.endsWith(EXTENSION)), executor).thenCompose(paths -> {
+			Map<Identifier, Entry> previous = this.loaded;
+			List<CompletableFuture<Entry>> futures = new ArrayList<>(paths.size());
+			for(Identifier path : paths) {
+				futures.add(CompletableFuture.supplyAsync(() -> load(manager, path, previous.get(path)), executor));
+			}
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> collect(paths, futures));
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> apply(Map<Identifier, Entry> entries, ResourceManager manager, Profiler profiler, Executor executor) {
+		return CompletableFuture.runAsync(() -> {
+			UHCRegistries.MODULES.clear();
+			for(Map.Entry<Identifier, Entry> entry : entries.entrySet()) {
+				UHCRegistries.MODULES.register(identifierFromPath(entry.getKey()), entry.getValue().module());
+			}
+			this.loaded = entries;
+		}, executor);
+	}
+
+	@Nullable
+	private static Entry load(ResourceManager manager, Identifier path, @Nullable Entry previous) {
+		byte[] bytes;
+		try(Resource resource = manager.getResource(path); InputStream stream = resource.getInputStream()) {
+			bytes = stream.readAllBytes();
+		} catch(IOException e) {
+			UHC.LOGGER.error("Failed to read UHC module at {}", path, e);
+			return null;
+		}
+
+		HashCode hash = Hashing.murmur3_128().hashBytes(bytes);
+		if(previous != null && previous.hash().equals(hash)) {
+			return previous;
+		}
+
+		try(Reader reader = new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)) {
+			JsonElement json = JsonParser.parseReader(reader);
+			DataResult<Module> result = Module.CODEC.decode(JsonOps.INSTANCE, json).map(Pair::getFirst);
+			result.error().ifPresent(error -> UHC.LOGGER.error("Failed to decode UHC module at {}: {}", path, error.toString()));
+			return result.result().map(module -> new Entry(hash, module)).orElse(null);
+		} catch(IOException | RuntimeException e) {
+			UHC.LOGGER.error("Failed to parse UHC module at {}", path, e);
+			return null;
+		}
+	}
+
+	private static Map<Identifier, Entry> collect(Collection<Identifier> paths, List<CompletableFuture<Entry>> futures) {
+		Map<Identifier, Entry> entries = new HashMap<>();
+		int i = 0;
+		for(Identifier path : paths) {
+			Entry entry = futures.get(i++).join();
+			if(entry != null) entries.put(path, entry);
+		}
+		return entries;
+	}
+
+	private static Identifier identifierFromPath(Identifier id) {
+		String path = id.getPath();
+		path = path.substring(FOLDER.length() + 1, path.length() - EXTENSION.length());
+		return new Identifier(id.getNamespace(), path);
+	}
+
+	record Entry(HashCode hash, Module module) {
+	}
+}
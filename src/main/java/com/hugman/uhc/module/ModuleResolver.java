@@ -0,0 +1,42 @@
+package com.hugman.uhc.module;
+
+import net.minecraft.entity.EntityType;
+import net.minecraft.loot.LootTable;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.tag.Tag;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.gen.feature.PlacedFeature;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Looks up the loot tables, tags and placed features that module pieces refer to.
+ */
+public interface ModuleResolver {
+	LootTable getLootTable(Identifier id);
+
+	@Nullable
+	Tag<EntityType<?>> getEntityTypeTag(Identifier id);
+
+	@Nullable
+	PlacedFeature getPlacedFeature(Identifier id);
+
+	static ModuleResolver of(MinecraftServer server) {
+		return new ModuleResolver() {
+			@Override
+			public LootTable getLootTable(Identifier id) {
+				return server.getLootManager().getTable(id);
+			}
+
+			@Override
+			public Tag<EntityType<?>> getEntityTypeTag(Identifier id) {
+				return server.getTagManager().getOrCreateTagGroup(Registry.ENTITY_TYPE_KEY).getTag(id);
+			}
+
+			@Override
+			public PlacedFeature getPlacedFeature(Identifier id) {
+				return server.getRegistryManager().get(Registry.PLACED_FEATURE_KEY).get(id);
+			}
+		};
+	}
+}
@@ -1,5 +1,6 @@
 package com.hugman.uhc.module.piece;
 
+import com.hugman.uhc.module.ModuleResolver;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import net.minecraft.block.BlockState;
@@ -12,14 +13,14 @@ import net.minecraft.loot.context.LootContext;
 import net.minecraft.loot.context.LootContextParameters;
 import net.minecraft.loot.context.LootContextTypes;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.structure.rule.RandomBlockMatchRuleTest;
+import net.minecraft.structure.rule.RandomBlockStateMatchRuleTest;
 import net.minecraft.structure.rule.RuleTest;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collections;
-import java.util.List;
 import java.util.Random;
 
 public class BlockLootModulePiece extends ModulePiece {
@@ -51,6 +52,17 @@ public class BlockLootModulePiece extends ModulePiece {
 		return this.predicate.test(state, random);
 	}
 
+	/**
+	 * Whether the target of this piece depends on chance, and so must be tested every time a block drops instead of once per block state.
+	 */
+	public boolean isRandom() {
+		return this.predicate instanceof RandomBlockMatchRuleTest || this.predicate instanceof RandomBlockStateMatchRuleTest;
+	}
+
+	public int getExperience() {
+		return this.experience;
+	}
+
 	public void spawnExperience(ServerWorld world, BlockPos pos) {
 		int xp = this.experience;
 		while(xp > 0) {
@@ -60,18 +72,26 @@ public class BlockLootModulePiece extends ModulePiece {
 		}
 	}
 
-	public List<ItemStack> getLoots(ServerWorld world, BlockPos pos, @Nullable Entity entity, ItemStack stack) {
-		LootContext.Builder builder = new LootContext.Builder(world).random(world.random).parameter(LootContextParameters.ORIGIN, Vec3d.ofCenter(pos)).parameter(LootContextParameters.TOOL, stack).optionalParameter(LootContextParameters.BLOCK_ENTITY, world.getBlockEntity(pos));
-		if(entity != null) {
-			builder = builder.optionalParameter(LootContextParameters.THIS_ENTITY, entity);
-		}
-		List<ItemStack> stacks = Collections.emptyList();
-		if(this.lootTable != LootTables.EMPTY) {
-			LootContext lootContext = builder.parameter(LootContextParameters.BLOCK_STATE, world.getBlockState(pos)).build(LootContextTypes.BLOCK);
-			LootTable lootTable = lootContext.getWorld().getServer().getLootManager().getTable(this.lootTable);
-			stacks = lootTable.generateLoot(lootContext);
-		}
-		return stacks;
+	/**
+	 * Builds the context in which the loot of a broken block is generated. A single context can be shared by all the pieces matching the same block.
+	 * The block may already be gone from the world when its drops are computed, so the context has no block entity.
+	 */
+	public static LootContext createLootContext(ServerWorld world, BlockPos pos, BlockState state, @Nullable Entity entity, ItemStack stack) {
+		return new LootContext.Builder(world)
+				.random(world.random)
+				.parameter(LootContextParameters.ORIGIN, Vec3d.ofCenter(pos))
+				.parameter(LootContextParameters.TOOL, stack)
+				.parameter(LootContextParameters.BLOCK_STATE, state)
+				.optionalParameter(LootContextParameters.THIS_ENTITY, entity)
+				.build(LootContextTypes.BLOCK);
+	}
+
+	public boolean hasLootTable() {
+		return this.lootTable != LootTables.EMPTY;
+	}
+
+	public LootTable resolveLootTable(ModuleResolver resolver) {
+		return this.hasLootTable() ? resolver.getLootTable(this.lootTable) : LootTable.EMPTY;
 	}
 
 	public boolean shouldReplace() {
@@ -1,40 +1,41 @@
 package com.hugman.uhc.module.piece;
 
+import com.hugman.uhc.UHC;
+import com.hugman.uhc.module.ModuleResolver;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.damage.DamageSource;
-import net.minecraft.item.ItemStack;
 import net.minecraft.loot.LootTable;
 import net.minecraft.loot.LootTables;
 import net.minecraft.loot.context.LootContext;
 import net.minecraft.loot.context.LootContextParameters;
 import net.minecraft.loot.context.LootContextTypes;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.tag.ServerTagManagerHolder;
 import net.minecraft.tag.Tag;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.registry.Registry;
 
 import java.util.Collections;
-import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class EntityLootModulePiece extends ModulePiece {
 	public static final Codec<EntityLootModulePiece> CODEC = RecordCodecBuilder.create(instance -> instance.group(
 			Codec.BOOL.optionalFieldOf("replace", true).forGetter(module -> module.replace),
-			Tag.codec(() -> ServerTagManagerHolder.getTagManager().getOrCreateTagGroup(Registry.ENTITY_TYPE_KEY)).optionalFieldOf("tag").forGetter(module -> module.tag),
+			Identifier.CODEC.optionalFieldOf("tag").forGetter(module -> module.tag),
 			Registry.ENTITY_TYPE.getCodec().optionalFieldOf("entity").forGetter(module -> module.entity),
 			Identifier.CODEC.optionalFieldOf("loot_table", LootTables.EMPTY).forGetter(module -> module.lootTable)
 	).apply(instance, EntityLootModulePiece::new));
 
 	private final boolean replace;
-	private final Optional<Tag<EntityType<?>>> tag;
+	private final Optional<Identifier> tag;
 	private final Optional<EntityType<?>> entity;
 	private final Identifier lootTable;
 
-	private EntityLootModulePiece(boolean replace, Optional<Tag<EntityType<?>>> tag, Optional<EntityType<?>> entity, Identifier lootTable) {
+	private EntityLootModulePiece(boolean replace, Optional<Identifier> tag, Optional<EntityType<?>> entity, Identifier lootTable) {
 		this.replace = replace;
 		this.tag = tag;
 		this.entity = entity;
@@ -46,33 +47,39 @@ public class EntityLootModulePiece extends ModulePiece {
 		return ModulePieceType.ENTITY_LOOT;
 	}
 
-	public boolean test(LivingEntity livingEntity) {
-		boolean valid = false;
-		if(tag.isPresent()) {
-			Tag<EntityType<?>> entityTypeTag = tag.get();
-			if(entityTypeTag.contains(livingEntity.getType())) {
-				valid = true;
+	/**
+	 * Gets the entity types this piece applies to, from either its tag or its entity.
+	 */
+	public Set<EntityType<?>> resolveEntityTypes(ModuleResolver resolver) {
+		if(this.tag.isPresent()) {
+			Tag<EntityType<?>> entityTypeTag = resolver.getEntityTypeTag(this.tag.get());
+			if(entityTypeTag == null) {
+				UHC.LOGGER.warn("Unknown entity type tag {} in UHC module piece", this.tag.get());
+				return Collections.emptySet();
 			}
+			return new ReferenceOpenHashSet<>(entityTypeTag.values());
 		}
-		else if(entity.isPresent()) {
-			EntityType<?> entityType = entity.get();
-			if(entityType.equals(livingEntity.getType())) {
-				valid = true;
-			}
-		}
-		return valid;
+		return this.entity.<Set<EntityType<?>>>map(Collections::singleton).orElse(Collections.emptySet());
 	}
 
-	public List<ItemStack> getLoots(ServerWorld world, LivingEntity livingEntity) {
-		LootContext.Builder builder = new LootContext.Builder(world).random(livingEntity.getRandom()).parameter(LootContextParameters.THIS_ENTITY, livingEntity).parameter(LootContextParameters.ORIGIN, livingEntity.getPos()).parameter(LootContextParameters.DAMAGE_SOURCE, DamageSource.GENERIC);
-		if(this.lootTable == LootTables.EMPTY) {
-			return Collections.emptyList();
-		}
-		else {
-			LootContext lootContext = builder.build(LootContextTypes.ENTITY);
-			LootTable lootTable = lootContext.getWorld().getServer().getLootManager().getTable(this.lootTable);
-			return lootTable.generateLoot(lootContext);
-		}
+	/**
+	 * Builds the context in which the loot of a dead entity is generated. A single context can be shared by all the pieces matching the same entity.
+	 */
+	public static LootContext createLootContext(ServerWorld world, LivingEntity livingEntity) {
+		return new LootContext.Builder(world)
+				.random(livingEntity.getRandom())
+				.parameter(LootContextParameters.THIS_ENTITY, livingEntity)
+				.parameter(LootContextParameters.ORIGIN, livingEntity.getPos())
+				.parameter(LootContextParameters.DAMAGE_SOURCE, DamageSource.GENERIC)
+				.build(LootContextTypes.ENTITY);
+	}
+
+	public boolean hasLootTable() {
+		return this.lootTable != LootTables.EMPTY;
+	}
+
+	public LootTable resolveLootTable(ModuleResolver resolver) {
+		return this.hasLootTable() ? resolver.getLootTable(this.lootTable) : LootTable.EMPTY;
 	}
 
 	public boolean shouldReplace() {
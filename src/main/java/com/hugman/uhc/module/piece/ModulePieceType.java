@@ -5,7 +5,9 @@ import com.hugman.uhc.UHCRegistries;
 import com.mojang.serialization.Codec;
 import net.minecraft.util.Identifier;
 
-public record ModulePieceType<T extends ModulePiece>(Codec<T> codec) {
+public record ModulePieceType<T extends ModulePiece>(Codec<T> codec, int index) {
+	private static int count;
+
 	public static final ModulePieceType<BlockLootModulePiece> BLOCK_LOOT = register("block_loot", BlockLootModulePiece.CODEC);
 	public static final ModulePieceType<EntityLootModulePiece> ENTITY_LOOT = register("entity_loot", EntityLootModulePiece.CODEC);
 	public static final ModulePieceType<TraversalBreakModulePiece> TRAVERSAL_BREAK = register("traversal_break", TraversalBreakModulePiece.CODEC);
@@ -18,8 +20,12 @@ public record ModulePieceType<T extends ModulePiece>(Codec<T> codec) {
 	}
 
 	public static <T extends ModulePiece> ModulePieceType<T> register(Identifier identifier, Codec<T> codec) {
-		ModulePieceType<T> type = new ModulePieceType<T>(codec);
+		ModulePieceType<T> type = new ModulePieceType<T>(codec, count++);
 		UHCRegistries.MODULE_PIECE_TYPES.register(identifier, type);
 		return type;
 	}
+
+	public static int count() {
+		return count;
+	}
 }
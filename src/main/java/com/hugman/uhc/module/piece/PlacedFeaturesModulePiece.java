@@ -1,14 +1,14 @@
 package com.hugman.uhc.module.piece;
 
+import com.hugman.uhc.UHC;
+import com.hugman.uhc.module.ModuleResolver;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.registry.Registry;
-import net.minecraft.world.StructureWorldAccess;
 import net.minecraft.world.gen.feature.PlacedFeature;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 public class PlacedFeaturesModulePiece extends ModulePiece {
 	public static final Codec<PlacedFeaturesModulePiece> CODEC = RecordCodecBuilder.create(instance -> instance.group(
@@ -26,8 +26,21 @@ public class PlacedFeaturesModulePiece extends ModulePiece {
 		return ModulePieceType.PLACED_FEATURES;
 	}
 
-	public List<PlacedFeature> getValues(StructureWorldAccess world) {
-		Registry<PlacedFeature> registry = world.getRegistryManager().get(Registry.PLACED_FEATURE_KEY);
-		return values.stream().map(registry::get).filter(Objects::nonNull).toList();
+	public List<PlacedFeature> resolveFeatures(ModuleResolver resolver) {
+		List<PlacedFeature> features = new ArrayList<>();
+		for(Identifier id : this.values) {
+			PlacedFeature feature = resolver.getPlacedFeature(id);
+			if(feature != null) {
+				features.add(feature);
+			}
+			else {
+				UHC.LOGGER.warn("Unknown placed feature {} in UHC module piece", id);
+			}
+		}
+		return features;
+	}
+
+	public List<Identifier> getIdentifiers() {
+		return values;
 	}
 }
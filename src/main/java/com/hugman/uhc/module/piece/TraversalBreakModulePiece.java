@@ -1,17 +1,16 @@
 package com.hugman.uhc.module.piece;
 
+import com.hugman.uhc.util.BlockFloodFill;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
-import it.unimi.dsi.fastutil.longs.LongArraySet;
-import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongList;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.LeavesBlock;
-import net.minecraft.entity.LivingEntity;
-import net.minecraft.server.world.ServerWorld;
 import net.minecraft.structure.rule.RuleTest;
 import net.minecraft.util.math.BlockPos;
-import org.jetbrains.annotations.Nullable;
-import xyz.nucleoid.plasmid.util.BlockTraversal;
+
+import java.util.Collection;
+import java.util.Random;
 
 public class TraversalBreakModulePiece extends ModulePiece {
 	public static final Codec<TraversalBreakModulePiece> CODEC = RecordCodecBuilder.create(instance -> instance.group(
@@ -32,46 +31,38 @@ public class TraversalBreakModulePiece extends ModulePiece {
 		return ModulePieceType.TRAVERSAL_BREAK;
 	}
 
-	public void breakBlock(ServerWorld world, @Nullable LivingEntity entity, BlockPos origin) {
-		BlockState state = world.getBlockState(origin);
+	/**
+	 * Finds the blocks that should break along with all the given origins at once, so that blocks reachable from several origins are only visited once.
+	 * Pieces are shared by every game, so the traversal runs on the flood fill of the caller.
+	 *
+	 * @return the positions of these blocks, in the order they were found. This list belongs to the flood fill and is reused by its next run.
+	 */
+	public LongList findBlocks(BlockFloodFill floodFill, BlockFloodFill.BlockStateSource source, Random random, Collection<BlockPos> origins) {
+		floodFill.reset();
+		for(BlockPos origin : origins) {
+			BlockState state = source.getBlockState(origin.getX(), origin.getY(), origin.getZ());
+			if(this.predicate.test(state, random)) {
+				floodFill.addSource(origin.asLong(), state);
+			}
+		}
+		return floodFill.run(source, (nextState, previousState) -> this.canBreak(nextState, previousState, random), this.amount);
+	}
 
-		if(this.predicate.test(state, world.getRandom())) {
-			BlockTraversal traversal = BlockTraversal.create()
-					.order(BlockTraversal.Order.BREADTH_FIRST)
-					.connectivity(BlockTraversal.Connectivity.TWENTY_SIX);
-			LongSet blockPosList = new LongArraySet();
-			traversal.accept(origin, (nextPos, fromPos, depth) -> {
-				if(depth > this.amount) {
-					return BlockTraversal.Result.TERMINATE;
-				}
-				if(origin.asLong() == nextPos.asLong()) {
-					return BlockTraversal.Result.CONTINUE;
-				}
-				BlockState previousState = world.getBlockState(fromPos);
-				BlockState nextState = world.getBlockState(nextPos);
-				if(this.predicate.test(nextState, world.getRandom())) {
-					blockPosList.add(nextPos.asLong());
-					return BlockTraversal.Result.CONTINUE;
-				}
-				else {
-					if(nextState.getBlock() instanceof LeavesBlock) {
-						if(!(previousState.getBlock() instanceof LeavesBlock)) {
-							if(nextState.get(LeavesBlock.DISTANCE) == 1) {
-								blockPosList.add(nextPos.asLong());
-								return BlockTraversal.Result.CONTINUE;
-							}
-						}
-						else {
-							if(nextState.get(LeavesBlock.DISTANCE) >= previousState.get(LeavesBlock.DISTANCE)) {
-								blockPosList.add(nextPos.asLong());
-								return BlockTraversal.Result.CONTINUE;
-							}
-						}
-					}
-				}
-				return BlockTraversal.Result.TERMINATE;
-			});
-			blockPosList.longStream().forEach(l -> world.breakBlock(BlockPos.fromLong(l), true, entity));
+	/**
+	 * @return whether a block reached from another one during a traversal should break too
+	 */
+	public boolean canBreak(BlockState nextState, BlockState previousState, Random random) {
+		if(this.predicate.test(nextState, random)) {
+			return true;
+		}
+		if(nextState.getBlock() instanceof LeavesBlock) {
+			if(!(previousState.getBlock() instanceof LeavesBlock)) {
+				return nextState.get(LeavesBlock.DISTANCE) == 1;
+			}
+			else {
+				return nextState.get(LeavesBlock.DISTANCE) >= previousState.get(LeavesBlock.DISTANCE);
+			}
 		}
+		return false;
 	}
 }
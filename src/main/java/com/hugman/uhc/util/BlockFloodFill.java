@@ -0,0 +1,115 @@
+package com.hugman.uhc.util;
+
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * A breadth-first traversal of blocks with 26-connectivity, working on packed positions only.
+ * <p>
+ * The queues, the visited set and the result list are kept between runs, so that a traversal only allocates when it goes further than any previous one.
+ * Instances are not thread-safe and are meant to be reused on the server thread.
+ */
+public final class BlockFloodFill {
+	private final LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+	private final IntArrayFIFOQueue depths = new IntArrayFIFOQueue();
+	private final IntArrayFIFOQueue fromStates = new IntArrayFIFOQueue();
+	private final LongOpenHashSet visited = new LongOpenHashSet();
+	private final LongArrayList result = new LongArrayList();
+	private final IntArrayList resultStates = new IntArrayList();
+
+	public void reset() {
+		this.queue.clear();
+		this.depths.clear();
+		this.fromStates.clear();
+		this.visited.clear();
+		this.result.clear();
+		this.resultStates.clear();
+	}
+
+	/**
+	 * Adds a position from which the traversal starts. Sources are not part of the result.
+	 */
+	public void addSource(long pos, BlockState state) {
+		if(this.visited.add(pos)) {
+			this.queue.enqueue(pos);
+			this.depths.enqueue(0);
+			this.fromStates.enqueue(Block.getRawIdFromState(state));
+		}
+	}
+
+	/**
+	 * Runs the traversal from every source added since the last reset.
+	 * Every visited block accepted by the visitor is added to the result, and the traversal then carries on from it, until blocks get further than {@code maxDepth} from their source.
+	 *
+	 * @return the accepted positions, in the order they were found. This list is reused by the next run.
+	 */
+	public LongList run(BlockStateSource source, Visitor visitor, int maxDepth) {
+		boolean sources = true;
+		int sourceCount = this.queue.size();
+		while(!this.queue.isEmpty()) {
+			long pos = this.queue.dequeueLong();
+			int depth = this.depths.dequeueInt();
+			BlockState fromState = Block.getStateFromRawId(this.fromStates.dequeueInt());
+
+			BlockState state;
+			int stateId;
+			if(sources) {
+				state = fromState;
+				stateId = Block.getRawIdFromState(state);
+				if(--sourceCount <= 0) sources = false;
+			}
+			else {
+				if(depth > maxDepth) continue;
+				state = source.getBlockState(BlockPos.unpackLongX(pos), BlockPos.unpackLongY(pos), BlockPos.unpackLongZ(pos));
+				if(!visitor.visit(state, fromState)) continue;
+				stateId = Block.getRawIdFromState(state);
+				this.result.add(pos);
+				this.resultStates.add(stateId);
+			}
+
+			int x = BlockPos.unpackLongX(pos);
+			int y = BlockPos.unpackLongY(pos);
+			int z = BlockPos.unpackLongZ(pos);
+			for(int dx = -1; dx <= 1; dx++) {
+				for(int dy = -1; dy <= 1; dy++) {
+					for(int dz = -1; dz <= 1; dz++) {
+						if(dx == 0 && dy == 0 && dz == 0) continue;
+						long next = BlockPos.asLong(x + dx, y + dy, z + dz);
+						if(this.visited.add(next)) {
+							this.queue.enqueue(next);
+							this.depths.enqueue(depth + 1);
+							this.fromStates.enqueue(stateId);
+						}
+					}
+				}
+			}
+		}
+		return this.result;
+	}
+
+	/**
+	 * @return the raw ids of the states the accepted positions had when they were visited, in the same order as the result of the last run. This list is reused by the next run.
+	 */
+	public IntList getResultStates() {
+		return this.resultStates;
+	}
+
+	public interface BlockStateSource {
+		BlockState getBlockState(int x, int y, int z);
+	}
+
+	public interface Visitor {
+		/**
+		 * @return whether the block should be part of the result and the traversal continue from it
+		 */
+		boolean visit(BlockState state, BlockState fromState);
+	}
+}
@@ -0,0 +1,127 @@
+package com.hugman.uhc.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerLightingProvider;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import xyz.nucleoid.map_templates.BlockBounds;
+
+/**
+ * Writes large volumes of blocks straight into chunk sections.
+ * <p>
+ * Unlike {@link ServerWorld#setBlockState(BlockPos, BlockState)}, no neighbor updates are done, and changed blocks are only sent to players once the writer is flushed, with one packet per chunk section.
+ * Light is only checked again for the blocks whose opacity or luminance changed, once each on flush, so that writing over air with transparent blocks costs no light update at all.
+ * <p>
+ * Blocks with block entities, and blocks in chunks that are not fully loaded yet, are not handled here and fall back to the regular way of setting blocks.
+ * Callers are expected to wait for their chunks to be loaded, as this fallback loads them on the spot.
+ */
+public final class BulkBlockWriter {
+	private static final Heightmap.Type[] HEIGHTMAPS = {Heightmap.Type.MOTION_BLOCKING, Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, Heightmap.Type.OCEAN_FLOOR, Heightmap.Type.WORLD_SURFACE};
+
+	private final ServerWorld world;
+	private final Long2ObjectMap<ShortSet> changedSections = new Long2ObjectOpenHashMap<>();
+	private final LongSet lightChecks = new LongOpenHashSet();
+	private final BlockPos.Mutable mutablePos = new BlockPos.Mutable();
+
+	public BulkBlockWriter(ServerWorld world) {
+		this.world = world;
+	}
+
+	public void fill(BlockBounds bounds, BlockState state) {
+		BlockPos min = bounds.min();
+		BlockPos max = bounds.max();
+		for(int x = min.getX(); x <= max.getX(); x++) {
+			for(int z = min.getZ(); z <= max.getZ(); z++) {
+				for(int y = min.getY(); y <= max.getY(); y++) {
+					this.set(this.mutablePos.set(x, y, z), state);
+				}
+			}
+		}
+	}
+
+	public void set(BlockPos pos, BlockState state) {
+		if(this.world.isOutOfHeightLimit(pos)) return;
+
+		WorldChunk chunk = this.world.getChunkManager().getWorldChunk(pos.getX() >> 4, pos.getZ() >> 4, false);
+		if(chunk == null) {
+			this.world.setBlockState(pos, state, Block.NOTIFY_LISTENERS);
+			return;
+		}
+		ChunkSection section = chunk.getSection(chunk.getSectionIndex(pos.getY()));
+		int x = pos.getX() & 15;
+		int y = pos.getY() & 15;
+		int z = pos.getZ() & 15;
+
+		BlockState previousState = section.getBlockState(x, y, z);
+		if(previousState == state) return;
+		if(previousState.hasBlockEntity() || state.hasBlockEntity()) {
+			this.world.setBlockState(pos, state, Block.NOTIFY_LISTENERS);
+			return;
+		}
+
+		boolean wasEmpty = section.isEmpty();
+		section.setBlockState(x, y, z, state, false);
+		for(Heightmap.Type type : HEIGHTMAPS) {
+			chunk.getHeightmap(type).trackUpdate(x, pos.getY(), z, state);
+		}
+		chunk.setShouldSave(true);
+
+		if(wasEmpty != section.isEmpty()) {
+			this.world.getChunkManager().getLightingProvider().setSectionStatus(pos, section.isEmpty());
+		}
+		if(this.changesLight(pos, previousState, state)) {
+			this.lightChecks.add(pos.asLong());
+		}
+
+		this.changedSections.computeIfAbsent(ChunkSectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4), l -> new ShortOpenHashSet()).add(ChunkSectionPos.packLocal(pos));
+	}
+
+	/**
+	 * Same condition as {@link net.minecraft.world.World#setBlockState(BlockPos, BlockState, int, int)} uses to queue a light check.
+	 */
+	private boolean changesLight(BlockPos pos, BlockState previousState, BlockState state) {
+		return previousState.getOpacity(this.world, pos) != state.getOpacity(this.world, pos)
+				|| previousState.getLuminance() != state.getLuminance()
+				|| previousState.hasSidedTransparency()
+				|| state.hasSidedTransparency();
+	}
+
+	/**
+	 * Queues the light checks of the changed blocks, and sends every changed section to the players watching it.
+	 */
+	public void flush() {
+		ServerLightingProvider lightingProvider = this.world.getChunkManager().getLightingProvider();
+		LongIterator iterator = this.lightChecks.iterator();
+		while(iterator.hasNext()) {
+			lightingProvider.checkBlock(this.mutablePos.set(iterator.nextLong()));
+		}
+		this.lightChecks.clear();
+
+		for(Long2ObjectMap.Entry<ShortSet> entry : this.changedSections.long2ObjectEntrySet()) {
+			ChunkSectionPos sectionPos = ChunkSectionPos.from(entry.getLongKey());
+			WorldChunk chunk = this.world.getChunkManager().getWorldChunk(sectionPos.getSectionX(), sectionPos.getSectionZ(), false);
+			if(chunk == null) continue;
+			ChunkSection section = chunk.getSection(chunk.sectionCoordToIndex(sectionPos.getSectionY()));
+			ChunkDeltaUpdateS2CPacket packet = new ChunkDeltaUpdateS2CPacket(sectionPos, entry.getValue(), section, false);
+			for(ServerPlayerEntity player : this.world.getChunkManager().threadedAnvilChunkStorage.getPlayersWatchingChunk(new ChunkPos(sectionPos.getSectionX(), sectionPos.getSectionZ()), false)) {
+				player.networkHandler.sendPacket(packet);
+			}
+		}
+		this.changedSections.clear();
+	}
+}
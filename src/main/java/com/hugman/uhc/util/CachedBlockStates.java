@@ -0,0 +1,45 @@
+package com.hugman.uhc.util;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads block states straight from the sections of loaded chunks, keeping the last chunk at hand since traversals mostly stay in the same one.
+ * Blocks in chunks that are not loaded are read as air, so that a traversal never loads or generates chunks.
+ */
+public final class CachedBlockStates implements BlockFloodFill.BlockStateSource {
+	private static final BlockState AIR = Blocks.AIR.getDefaultState();
+
+	private ServerWorld world;
+	private long chunkPos = Long.MAX_VALUE;
+	@Nullable
+	private WorldChunk chunk;
+
+	public CachedBlockStates bind(ServerWorld world) {
+		this.world = world;
+		this.chunkPos = Long.MAX_VALUE;
+		this.chunk = null;
+		return this;
+	}
+
+	@Override
+	public BlockState getBlockState(int x, int y, int z) {
+		if(this.world.isOutOfHeightLimit(y)) return AIR;
+
+		long chunkPos = ChunkPos.toLong(x >> 4, z >> 4);
+		if(chunkPos != this.chunkPos) {
+			this.chunkPos = chunkPos;
+			this.chunk = this.world.getChunkManager().getWorldChunk(x >> 4, z >> 4, false);
+		}
+		if(this.chunk == null) return AIR;
+
+		ChunkSection section = this.chunk.getSectionArray()[this.chunk.getSectionIndex(y)];
+		if(section.isEmpty()) return AIR;
+		return section.getBlockState(x & 15, y & 15, z & 15);
+	}
+}
@@ -0,0 +1,73 @@
+package com.hugman.uhc.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds, using power of two buckets.
+ * Recording is a handful of atomic increments, so it can be used from worldgen threads and on the server thread alike.
+ */
+public final class LatencyHistogram {
+	private static final int BUCKETS = 48;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	public void record(long nanos) {
+		if(nanos < 0) nanos = 0;
+		this.buckets.incrementAndGet(Math.min(64 - Long.numberOfLeadingZeros(nanos), BUCKETS - 1));
+		this.count.increment();
+		this.total.add(nanos);
+		this.max.accumulateAndGet(nanos, Math::max);
+	}
+
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	public long getTotal() {
+		return this.total.sum();
+	}
+
+	public long getMax() {
+		return this.max.get();
+	}
+
+	public long getMean() {
+		long count = this.getCount();
+		return count == 0 ? 0 : this.getTotal() / count;
+	}
+
+	/**
+	 * Returns the upper bound of the bucket holding the given percentile, which is at most twice the real value.
+	 */
+	public long getPercentile(double percentile) {
+		long count = this.getCount();
+		if(count == 0) return 0;
+		long target = (long) Math.ceil(count * percentile);
+		long seen = 0;
+		for(int i = 0; i < BUCKETS; i++) {
+			seen += this.buckets.get(i);
+			if(seen >= target) {
+				return Math.min(i == 0 ? 0 : 1L << i, this.getMax());
+			}
+		}
+		return this.getMax();
+	}
+
+	public void reset() {
+		for(int i = 0; i < BUCKETS; i++) {
+			this.buckets.set(i, 0);
+		}
+		this.count.reset();
+		this.total.reset();
+		this.max.set(0);
+	}
+
+	public String summarize() {
+		return String.format("n=%d total=%.1fms mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms", this.getCount(), this.getTotal() / 1.0E6D, this.getMean() / 1.0E6D, this.getPercentile(0.5D) / 1.0E6D, this.getPercentile(0.99D) / 1.0E6D, this.getMax() / 1.0E6D);
+	}
+}